@@ -1,5 +1,8 @@
 package dev.rick.tree.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,7 +13,713 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Timer timer = new Timer();
+
+    private final Bank bank = new Bank();
+
+    private final Tree tree = new Tree();
+
+    private final Export export = new Export();
+
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    private final Security security = new Security();
+
+    private final EntityVersion entityVersion = new EntityVersion();
+
     // jhipster-needle-application-properties-property
+
+    public Timer getTimer() {
+        return timer;
+    }
+
+    public Bank getBank() {
+        return bank;
+    }
+
+    public Tree getTree() {
+        return tree;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public EntityVersion getEntityVersion() {
+        return entityVersion;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Timer {
+
+        private final Expiration expiration = new Expiration();
+
+        private final Sweeper sweeper = new Sweeper();
+
+        private final Events events = new Events();
+
+        private final Archive archive = new Archive();
+
+        private final Journal journal = new Journal();
+
+        public Expiration getExpiration() {
+            return expiration;
+        }
+
+        public Sweeper getSweeper() {
+            return sweeper;
+        }
+
+        public Events getEvents() {
+            return events;
+        }
+
+        public Archive getArchive() {
+            return archive;
+        }
+
+        public Journal getJournal() {
+            return journal;
+        }
+
+        public static class Expiration {
+
+            private boolean enabled = true;
+
+            private long tickMs = 100;
+
+            private int wheelSize = 512;
+
+            private int batchSize = 500;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getTickMs() {
+                return tickMs;
+            }
+
+            public void setTickMs(long tickMs) {
+                this.tickMs = tickMs;
+            }
+
+            public int getWheelSize() {
+                return wheelSize;
+            }
+
+            public void setWheelSize(int wheelSize) {
+                this.wheelSize = wheelSize;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public static class Sweeper {
+
+            private long intervalMs = 60_000;
+
+            private int chunkSize = 500;
+
+            public long getIntervalMs() {
+                return intervalMs;
+            }
+
+            public void setIntervalMs(long intervalMs) {
+                this.intervalMs = intervalMs;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+
+        public static class Events {
+
+            private long checkpointMs = 30_000;
+
+            private long streamTimeoutMs = 1_800_000;
+
+            private int deliveryThreads = 2;
+
+            private int subscriberQueueCapacity = 32;
+
+            public long getCheckpointMs() {
+                return checkpointMs;
+            }
+
+            public void setCheckpointMs(long checkpointMs) {
+                this.checkpointMs = checkpointMs;
+            }
+
+            public long getStreamTimeoutMs() {
+                return streamTimeoutMs;
+            }
+
+            public void setStreamTimeoutMs(long streamTimeoutMs) {
+                this.streamTimeoutMs = streamTimeoutMs;
+            }
+
+            public int getDeliveryThreads() {
+                return deliveryThreads;
+            }
+
+            public void setDeliveryThreads(int deliveryThreads) {
+                this.deliveryThreads = deliveryThreads;
+            }
+
+            public int getSubscriberQueueCapacity() {
+                return subscriberQueueCapacity;
+            }
+
+            public void setSubscriberQueueCapacity(int subscriberQueueCapacity) {
+                this.subscriberQueueCapacity = subscriberQueueCapacity;
+            }
+        }
+
+        public static class Archive {
+
+            private long intervalMs = 3_600_000;
+
+            private Duration maxAge = Duration.ofDays(30);
+
+            private int chunkSize = 500;
+
+            public long getIntervalMs() {
+                return intervalMs;
+            }
+
+            public void setIntervalMs(long intervalMs) {
+                this.intervalMs = intervalMs;
+            }
+
+            public Duration getMaxAge() {
+                return maxAge;
+            }
+
+            public void setMaxAge(Duration maxAge) {
+                this.maxAge = maxAge;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+        }
+
+        public static class Journal {
+
+            private boolean enabled = false;
+
+            private String path = "data/timer.journal";
+
+            private int sizeBytes = 16 * 1024 * 1024;
+
+            private int queueCapacity = 65_536;
+
+            private long compactIntervalMs = 600_000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public int getSizeBytes() {
+                return sizeBytes;
+            }
+
+            public void setSizeBytes(int sizeBytes) {
+                this.sizeBytes = sizeBytes;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public long getCompactIntervalMs() {
+                return compactIntervalMs;
+            }
+
+            public void setCompactIntervalMs(long compactIntervalMs) {
+                this.compactIntervalMs = compactIntervalMs;
+            }
+        }
+    }
+
+    public static class Bank {
+
+        private final Counter counter = new Counter();
+
+        private final Ledger ledger = new Ledger();
+
+        private final Reconciliation reconciliation = new Reconciliation();
+
+        public Counter getCounter() {
+            return counter;
+        }
+
+        public Ledger getLedger() {
+            return ledger;
+        }
+
+        public Reconciliation getReconciliation() {
+            return reconciliation;
+        }
+
+        public static class Counter {
+
+            private boolean striped = false;
+
+            private long flushIntervalMs = 1_000;
+
+            private int batchSize = 500;
+
+            public boolean isStriped() {
+                return striped;
+            }
+
+            public void setStriped(boolean striped) {
+                this.striped = striped;
+            }
+
+            public long getFlushIntervalMs() {
+                return flushIntervalMs;
+            }
+
+            public void setFlushIntervalMs(long flushIntervalMs) {
+                this.flushIntervalMs = flushIntervalMs;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+        }
+
+        public static class Ledger {
+
+            private long snapshotIntervalMs = 60_000;
+
+            private long snapshotDelayMs = 60_000;
+
+            public long getSnapshotIntervalMs() {
+                return snapshotIntervalMs;
+            }
+
+            public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+                this.snapshotIntervalMs = snapshotIntervalMs;
+            }
+
+            public long getSnapshotDelayMs() {
+                return snapshotDelayMs;
+            }
+
+            public void setSnapshotDelayMs(long snapshotDelayMs) {
+                this.snapshotDelayMs = snapshotDelayMs;
+            }
+        }
+
+        public static class Reconciliation {
+
+            private String cron = "-";
+
+            private boolean repair = false;
+
+            private int rangeSize = 10_000;
+
+            private int parallelism = 4;
+
+            private int batchSize = 500;
+
+            private int maxReported = 100;
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public boolean isRepair() {
+                return repair;
+            }
+
+            public void setRepair(boolean repair) {
+                this.repair = repair;
+            }
+
+            public int getRangeSize() {
+                return rangeSize;
+            }
+
+            public void setRangeSize(int rangeSize) {
+                this.rangeSize = rangeSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getMaxReported() {
+                return maxReported;
+            }
+
+            public void setMaxReported(int maxReported) {
+                this.maxReported = maxReported;
+            }
+        }
+    }
+
+    public static class Tree {
+
+        private final Summary summary = new Summary();
+
+        private final Import importer = new Import();
+
+        public Summary getSummary() {
+            return summary;
+        }
+
+        public Import getImport() {
+            return importer;
+        }
+
+        public static class Summary {
+
+            private String rebuildCron = "-";
+
+            private int chunkSize = 500;
+
+            private int parallelism = 4;
+
+            public String getRebuildCron() {
+                return rebuildCron;
+            }
+
+            public void setRebuildCron(String rebuildCron) {
+                this.rebuildCron = rebuildCron;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+        }
+
+        public static class Import {
+
+            private int chunkSize = 5_000;
+
+            private int batchSize = 500;
+
+            private int loginCacheSize = 100_000;
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getLoginCacheSize() {
+                return loginCacheSize;
+            }
+
+            public void setLoginCacheSize(int loginCacheSize) {
+                this.loginCacheSize = loginCacheSize;
+            }
+        }
+    }
+
+    public static class Export {
+
+        private int chunkSize = 1_000;
+
+        private Duration timeout = Duration.ofHours(1);
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Leaderboard {
+
+        private int maxTop = 100;
+
+        private int rebuildPageSize = 1_000;
+
+        private String resyncCron = "-";
+
+        public int getMaxTop() {
+            return maxTop;
+        }
+
+        public void setMaxTop(int maxTop) {
+            this.maxTop = maxTop;
+        }
+
+        public int getRebuildPageSize() {
+            return rebuildPageSize;
+        }
+
+        public void setRebuildPageSize(int rebuildPageSize) {
+            this.rebuildPageSize = rebuildPageSize;
+        }
+
+        public String getResyncCron() {
+            return resyncCron;
+        }
+
+        public void setResyncCron(String resyncCron) {
+            this.resyncCron = resyncCron;
+        }
+    }
+
+    public static class Security {
+
+        private final Jwt jwt = new Jwt();
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        public Jwt getJwt() {
+            return jwt;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public static class Jwt {
+
+            private int cacheSize = 10_000;
+
+            public int getCacheSize() {
+                return cacheSize;
+            }
+
+            public void setCacheSize(int cacheSize) {
+                this.cacheSize = cacheSize;
+            }
+        }
+
+        public static class PasswordHashing {
+
+            private int threads = 2;
+
+            private int queueCapacity = 64;
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public static class RateLimit {
+
+            private int maxBuckets = 100_000;
+
+            private Duration sweepInterval = Duration.ofMinutes(1);
+
+            private List<Route> routes = new ArrayList<>();
+
+            public int getMaxBuckets() {
+                return maxBuckets;
+            }
+
+            public void setMaxBuckets(int maxBuckets) {
+                this.maxBuckets = maxBuckets;
+            }
+
+            public Duration getSweepInterval() {
+                return sweepInterval;
+            }
+
+            public void setSweepInterval(Duration sweepInterval) {
+                this.sweepInterval = sweepInterval;
+            }
+
+            public List<Route> getRoutes() {
+                return routes;
+            }
+
+            public void setRoutes(List<Route> routes) {
+                this.routes = routes;
+            }
+
+            public static class Route {
+
+                private String pattern;
+
+                private List<String> methods = new ArrayList<>();
+
+                private int capacity = 10;
+
+                private double refillPerSecond = 1;
+
+                private String loginField;
+
+                public String getPattern() {
+                    return pattern;
+                }
+
+                public void setPattern(String pattern) {
+                    this.pattern = pattern;
+                }
+
+                public List<String> getMethods() {
+                    return methods;
+                }
+
+                public void setMethods(List<String> methods) {
+                    this.methods = methods;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public double getRefillPerSecond() {
+                    return refillPerSecond;
+                }
+
+                public void setRefillPerSecond(double refillPerSecond) {
+                    this.refillPerSecond = refillPerSecond;
+                }
+
+                public String getLoginField() {
+                    return loginField;
+                }
+
+                public void setLoginField(String loginField) {
+                    this.loginField = loginField;
+                }
+            }
+        }
+    }
+
+    public static class EntityVersion {
+
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
     // jhipster-needle-application-properties-property-class
 }
@@ -45,12 +45,14 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, dev.rick.tree.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, dev.rick.tree.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, dev.rick.tree.repository.UserRepository.USER_IDS_BY_LOGIN_CACHE);
             createCache(cm, dev.rick.tree.domain.User.class.getName());
             createCache(cm, dev.rick.tree.domain.Authority.class.getName());
             createCache(cm, dev.rick.tree.domain.User.class.getName() + ".authorities");
             createCache(cm, dev.rick.tree.domain.Timer.class.getName());
             createCache(cm, dev.rick.tree.domain.Tree.class.getName());
             createCache(cm, dev.rick.tree.domain.Bank.class.getName());
+            createCache(cm, dev.rick.tree.service.TreeSummaryService.TREE_SUMMARY_BY_USER_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
@@ -1,7 +1,11 @@
 package dev.rick.tree.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.management.SecurityMetersService;
 import dev.rick.tree.security.*;
 import dev.rick.tree.security.jwt.*;
+import dev.rick.tree.security.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -43,18 +47,36 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.PasswordHashing passwordHashing = applicationProperties.getSecurity().getPasswordHashing();
+        return new BoundedPasswordEncoder(
+            new BCryptPasswordEncoder(),
+            passwordHashing.getThreads(),
+            passwordHashing.getQueueCapacity(),
+            meterRegistry
+        );
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(
+        HttpSecurity http,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService,
+        ObjectMapper objectMapper
+    ) throws Exception {
+        RateLimitFilter rateLimitFilter = new RateLimitFilter(
+            applicationProperties.getSecurity().getRateLimit(),
+            securityMetersService,
+            objectMapper
+        );
         // @formatter:off
         http
             .csrf()
             .ignoringAntMatchers("/h2-console/**")
             .disable()
             .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
+            // After the JWTFilter, added before the UsernamePasswordAuthenticationFilter, so requests are limited by login too
+            .addFilterAfter(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .exceptionHandling()
                 .authenticationEntryPoint(problemSupport)
                 .accessDeniedHandler(problemSupport)
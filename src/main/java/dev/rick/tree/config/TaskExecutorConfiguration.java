@@ -0,0 +1,54 @@
+package dev.rick.tree.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executors of the services, so their work neither waits behind nor starves the {@code @Async} tasks.
+ * <p>
+ * Unlike the {@link AsyncConfiguration}, they are created in every profile, since the services rely on them.
+ */
+@Configuration
+public class TaskExecutorConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(TaskExecutorConfiguration.class);
+
+    /**
+     * Executor sending the timer events to their subscribers, away from the threads publishing them.
+     * <p>
+     * Each subscriber has at most one delivery in the queue, so the queue is bounded by the number of subscribers.
+     *
+     * @param applicationProperties the application properties.
+     * @return the executor.
+     */
+    @Bean(name = "timerEventsExecutor")
+    public ThreadPoolTaskExecutor timerEventsExecutor(ApplicationProperties applicationProperties) {
+        log.debug("Creating Timer Events Task Executor");
+        int threads = applicationProperties.getTimer().getEvents().getDeliveryThreads();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("timer-events-");
+        return executor;
+    }
+
+    /**
+     * Executor rebuilding the chunks of the tree summaries, {@code application.tree.summary.parallelism} at a time.
+     *
+     * @param applicationProperties the application properties.
+     * @return the executor.
+     */
+    @Bean(name = "treeSummaryExecutor")
+    public ThreadPoolTaskExecutor treeSummaryExecutor(ApplicationProperties applicationProperties) {
+        log.debug("Creating Tree Summary Task Executor");
+        int threads = applicationProperties.getTree().getSummary().getParallelism();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("tree-summary-rebuild-");
+        return executor;
+    }
+}
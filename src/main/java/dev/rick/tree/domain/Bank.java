@@ -29,6 +29,10 @@ public class Bank implements Serializable {
     @JoinColumn(unique = true)
     private User assignedTo;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -70,6 +74,19 @@ public class Bank implements Serializable {
         return this;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Bank version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -95,6 +112,7 @@ public class Bank implements Serializable {
         return "Bank{" +
             "id=" + getId() +
             ", treesowned=" + getTreesowned() +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,136 @@
+package dev.rick.tree.domain;
+
+import dev.rick.tree.domain.enumeration.LedgerEntryType;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A change of the number of trees owned by a user, in the {@code bank_ledger}.
+ * <p>
+ * Entries are append-only and numbered by {@code seq} from the {@code bank_ledger_seq} sequence, so the entries of a
+ * user are ordered by {@code (user_id, seq)} and the balance of a user is the sum of its deltas. They are not cached
+ * since they are only read by balance and audit queries.
+ */
+@Entity
+@Immutable
+@Table(name = "bank_ledger")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class BankLedgerEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bankLedgerSequence")
+    @SequenceGenerator(name = "bankLedgerSequence", sequenceName = "bank_ledger_seq", allocationSize = 1)
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private LedgerEntryType type;
+
+    @Column(name = "delta", nullable = false)
+    private Long delta;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getSeq() {
+        return this.seq;
+    }
+
+    public BankLedgerEntry seq(Long seq) {
+        this.setSeq(seq);
+        return this;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public BankLedgerEntry userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LedgerEntryType getType() {
+        return this.type;
+    }
+
+    public BankLedgerEntry type(LedgerEntryType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(LedgerEntryType type) {
+        this.type = type;
+    }
+
+    public Long getDelta() {
+        return this.delta;
+    }
+
+    public BankLedgerEntry delta(Long delta) {
+        this.setDelta(delta);
+        return this;
+    }
+
+    public void setDelta(Long delta) {
+        this.delta = delta;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public BankLedgerEntry createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BankLedgerEntry)) {
+            return false;
+        }
+        return seq != null && seq.equals(((BankLedgerEntry) o).seq);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BankLedgerEntry{" +
+            "seq=" + getSeq() +
+            ", userId=" + getUserId() +
+            ", type='" + getType() + "'" +
+            ", delta=" + getDelta() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,194 @@
+package dev.rick.tree.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The number of trees owned by a user after the {@link BankLedgerEntry} with the same {@code seq}, that is the sum of the
+ * deltas of their entries up to and including it.
+ * <p>
+ * Snapshots are written by the {@code BankLedgerService} snapshot job for the users with settled entries since their last
+ * snapshot, so a balance is read from a snapshot and the recent entries after it. Their {@code createdDate} is the
+ * latest {@code createdDate} of the entries they sum.
+ */
+@Entity
+@Immutable
+@IdClass(BankSnapshot.Key.class)
+@Table(name = "bank_snapshot")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class BankSnapshot implements Serializable, Persistable<BankSnapshot.Key> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "treesowned", nullable = false)
+    private Long treesowned;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    @JsonIgnore
+    public Key getId() {
+        return new Key(userId, seq);
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public BankSnapshot userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getSeq() {
+        return this.seq;
+    }
+
+    public BankSnapshot seq(Long seq) {
+        this.setSeq(seq);
+        return this;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Long getTreesowned() {
+        return this.treesowned;
+    }
+
+    public BankSnapshot treesowned(Long treesowned) {
+        this.setTreesowned(treesowned);
+        return this;
+    }
+
+    public void setTreesowned(Long treesowned) {
+        this.treesowned = treesowned;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public BankSnapshot createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Transient
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public BankSnapshot setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BankSnapshot)) {
+            return false;
+        }
+        return userId != null && seq != null && getId().equals(((BankSnapshot) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BankSnapshot{" +
+            "userId=" + getUserId() +
+            ", seq=" + getSeq() +
+            ", treesowned=" + getTreesowned() +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+
+    /**
+     * The primary key of a {@link BankSnapshot}.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long userId;
+
+        private Long seq;
+
+        public Key() {
+            // Empty constructor needed for JPA.
+        }
+
+        public Key(Long userId, Long seq) {
+            this.userId = userId;
+            this.seq = seq;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Long getSeq() {
+            return seq;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && Objects.equals(seq, key.seq);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, seq);
+        }
+    }
+}
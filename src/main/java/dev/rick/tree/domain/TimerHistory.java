@@ -0,0 +1,107 @@
+package dev.rick.tree.domain;
+
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * An archived {@link Timer}.
+ * <p>
+ * Rows are only written by the archival job, and are not cached since they are rarely read.
+ */
+@Entity
+@Immutable
+@Table(name = "timer_history")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TimerHistory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "duration")
+    private Integer duration;
+
+    @Column(name = "expiration_time")
+    private ZonedDateTime expirationTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private TimerStatus status;
+
+    @Column(name = "assigned_to_id")
+    private Long assignedToId;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getDuration() {
+        return this.duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public ZonedDateTime getExpirationTime() {
+        return this.expirationTime;
+    }
+
+    public void setExpirationTime(ZonedDateTime expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    public TimerStatus getStatus() {
+        return this.status;
+    }
+
+    public void setStatus(TimerStatus status) {
+        this.status = status;
+    }
+
+    public Long getAssignedToId() {
+        return this.assignedToId;
+    }
+
+    public void setAssignedToId(Long assignedToId) {
+        this.assignedToId = assignedToId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TimerHistory)) {
+            return false;
+        }
+        return id != null && id.equals(((TimerHistory) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimerHistory{" +
+            "id=" + getId() +
+            ", duration=" + getDuration() +
+            ", expirationTime='" + getExpirationTime() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", assignedToId=" + getAssignedToId() +
+            "}";
+    }
+}
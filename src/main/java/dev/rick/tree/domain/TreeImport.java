@@ -0,0 +1,158 @@
+package dev.rick.tree.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The progress of a bulk import of {@link Tree}s, identified by a key chosen by the client.
+ * <p>
+ * The progress is advanced in the transaction committing each chunk of rows, so an import sent again with the same key
+ * resumes after the last committed row.
+ */
+@Entity
+@Table(name = "tree_import")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class TreeImport implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "import_key", length = 100)
+    private String importKey;
+
+    @Column(name = "rows_committed", nullable = false)
+    private Long rowsCommitted;
+
+    @Column(name = "rows_imported", nullable = false)
+    private Long rowsImported;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private Long rowsRejected;
+
+    @Column(name = "last_modified_date")
+    private Instant lastModifiedDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return this.importKey;
+    }
+
+    public String getImportKey() {
+        return this.importKey;
+    }
+
+    public TreeImport importKey(String importKey) {
+        this.setImportKey(importKey);
+        return this;
+    }
+
+    public void setImportKey(String importKey) {
+        this.importKey = importKey;
+    }
+
+    public Long getRowsCommitted() {
+        return this.rowsCommitted;
+    }
+
+    public TreeImport rowsCommitted(Long rowsCommitted) {
+        this.setRowsCommitted(rowsCommitted);
+        return this;
+    }
+
+    public void setRowsCommitted(Long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public Long getRowsImported() {
+        return this.rowsImported;
+    }
+
+    public TreeImport rowsImported(Long rowsImported) {
+        this.setRowsImported(rowsImported);
+        return this;
+    }
+
+    public void setRowsImported(Long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public Long getRowsRejected() {
+        return this.rowsRejected;
+    }
+
+    public TreeImport rowsRejected(Long rowsRejected) {
+        this.setRowsRejected(rowsRejected);
+        return this;
+    }
+
+    public void setRowsRejected(Long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public Instant getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+
+    public TreeImport lastModifiedDate(Instant lastModifiedDate) {
+        this.setLastModifiedDate(lastModifiedDate);
+        return this;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Transient
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public TreeImport setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TreeImport)) {
+            return false;
+        }
+        return importKey != null && importKey.equals(((TreeImport) o).importKey);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TreeImport{" +
+            "importKey='" + getImportKey() + "'" +
+            ", rowsCommitted=" + getRowsCommitted() +
+            ", rowsImported=" + getRowsImported() +
+            ", rowsRejected=" + getRowsRejected() +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            "}";
+    }
+}
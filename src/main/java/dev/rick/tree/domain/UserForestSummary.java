@@ -0,0 +1,174 @@
+package dev.rick.tree.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The number of {@link Tree}s of a {@link TreeType} owned by a user.
+ * <p>
+ * Rows are incremented in the transaction changing the trees, so the summary of a user is read without aggregating
+ * the {@code tree} table. They are updated in bulk and therefore not cached.
+ */
+@Entity
+@IdClass(UserForestSummary.Key.class)
+@Table(name = "user_forest_summary")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class UserForestSummary implements Serializable, Persistable<UserForestSummary.Key> {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tree_type")
+    private TreeType treeType;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    @JsonIgnore
+    public Key getId() {
+        return new Key(userId, treeType);
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public UserForestSummary userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public TreeType getTreeType() {
+        return this.treeType;
+    }
+
+    public UserForestSummary treeType(TreeType treeType) {
+        this.setTreeType(treeType);
+        return this;
+    }
+
+    public void setTreeType(TreeType treeType) {
+        this.treeType = treeType;
+    }
+
+    public Long getTotal() {
+        return this.total;
+    }
+
+    public UserForestSummary total(Long total) {
+        this.setTotal(total);
+        return this;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Transient
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public UserForestSummary setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserForestSummary)) {
+            return false;
+        }
+        return userId != null && treeType != null && getId().equals(((UserForestSummary) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserForestSummary{" +
+            "userId=" + getUserId() +
+            ", treeType='" + getTreeType() + "'" +
+            ", total=" + getTotal() +
+            "}";
+    }
+
+    /**
+     * The primary key of a {@link UserForestSummary}.
+     */
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long userId;
+
+        private TreeType treeType;
+
+        public Key() {
+            // Empty constructor needed for JPA.
+        }
+
+        public Key(Long userId, TreeType treeType) {
+            this.userId = userId;
+            this.treeType = treeType;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public TreeType getTreeType() {
+            return treeType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(userId, key.userId) && treeType == key.treeType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, treeType);
+        }
+    }
+}
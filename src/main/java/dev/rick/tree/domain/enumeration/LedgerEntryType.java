@@ -0,0 +1,10 @@
+package dev.rick.tree.domain.enumeration;
+
+/**
+ * The LedgerEntryType enumeration.
+ */
+public enum LedgerEntryType {
+    Earn,
+    Spend,
+    Adjust,
+}
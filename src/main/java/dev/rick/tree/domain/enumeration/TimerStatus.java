@@ -6,4 +6,5 @@ package dev.rick.tree.domain.enumeration;
 public enum TimerStatus {
     Running,
     Expired,
+    Completed,
 }
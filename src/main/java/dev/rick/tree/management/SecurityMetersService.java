@@ -13,16 +13,25 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String RATE_LIMITED_METER_NAME = "security.rate-limit.rejected";
+    public static final String RATE_LIMITED_METER_DESCRIPTION = "Indicates the count of the requests rejected by the rate limiter.";
+    public static final String RATE_LIMITED_METER_BASE_UNIT = "requests";
+    public static final String RATE_LIMITED_METER_KEY_DIMENSION = "key";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter rateLimitedByIpCounter;
+    private final Counter rateLimitedByLoginCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.rateLimitedByIpCounter = rateLimitedCounterForKeyBuilder("ip").register(registry);
+        this.rateLimitedByLoginCounter = rateLimitedCounterForKeyBuilder("login").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -33,6 +42,14 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder rateLimitedCounterForKeyBuilder(String key) {
+        return Counter
+            .builder(RATE_LIMITED_METER_NAME)
+            .baseUnit(RATE_LIMITED_METER_BASE_UNIT)
+            .description(RATE_LIMITED_METER_DESCRIPTION)
+            .tag(RATE_LIMITED_METER_KEY_DIMENSION, key);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -48,4 +65,12 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackRateLimitedByIp() {
+        this.rateLimitedByIpCounter.increment();
+    }
+
+    public void trackRateLimitedByLogin() {
+        this.rateLimitedByLoginCounter.increment();
+    }
 }
@@ -0,0 +1,88 @@
+package dev.rick.tree.repository;
+
+import dev.rick.tree.domain.BankLedgerEntry;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the BankLedgerEntry entity.
+ */
+@Repository
+public interface BankLedgerRepository extends JpaRepository<BankLedgerEntry, Long> {
+    @Query(
+        "select coalesce(sum(entry.delta), 0) from BankLedgerEntry entry" +
+        " where entry.userId = :userId and entry.seq > :afterSeq and entry.createdDate <= :at"
+    )
+    long sumDeltasAfterUntil(@Param("userId") Long userId, @Param("afterSeq") long afterSeq, @Param("at") Instant at);
+
+    /**
+     * Sums the entries of users after their latest snapshot, returned with the sequence number of that snapshot since a
+     * later snapshot may be written before it is read.
+     *
+     * @param userIds the ids of the users.
+     * @return the sum of each user with entries after their latest snapshot.
+     */
+    @Query(
+        "select entry.userId as userId, sum(entry.delta) as delta," +
+        " (select max(snapshot.seq) from BankSnapshot snapshot where snapshot.userId = entry.userId) as afterSeq" +
+        " from BankLedgerEntry entry where entry.userId in :userIds" +
+        " and entry.seq > all (select snapshot.seq from BankSnapshot snapshot where snapshot.userId = entry.userId)" +
+        " group by entry.userId"
+    )
+    List<Tail> sumDeltasAfterLatestSnapshotByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Sums the entries of a user in a range of sequence numbers.
+     *
+     * @param userId the id of the user.
+     * @param afterSeq the sequence number before the range, excluded.
+     * @param untilSeq the last sequence number of the range, included.
+     * @return the sum of the entries in the range.
+     */
+    @Query(
+        "select coalesce(sum(entry.delta), 0) as delta, max(entry.createdDate) as createdDate" +
+        " from BankLedgerEntry entry where entry.userId = :userId and entry.seq > :afterSeq and entry.seq <= :untilSeq"
+    )
+    Range sumDeltasBetween(@Param("userId") Long userId, @Param("afterSeq") long afterSeq, @Param("untilSeq") long untilSeq);
+
+    /**
+     * Gets the last sequence number of the entries of a user created up to a point in time.
+     *
+     * @param userId the id of the user.
+     * @param afterSeq the sequence number to search after.
+     * @param until the point in time.
+     * @return the sequence number, or {@code null} if the user has no such entry.
+     */
+    @Query(
+        "select max(entry.seq) from BankLedgerEntry entry" +
+        " where entry.userId = :userId and entry.seq > :afterSeq and entry.createdDate <= :until"
+    )
+    Long findLastSeqAfterUntil(@Param("userId") Long userId, @Param("afterSeq") long afterSeq, @Param("until") Instant until);
+
+    @Query("select distinct entry.userId from BankLedgerEntry entry where entry.createdDate > :since and entry.createdDate <= :until")
+    List<Long> findUserIdsByCreatedDateBetween(@Param("since") Instant since, @Param("until") Instant until);
+
+    /**
+     * Sum of the entries of a user after a snapshot.
+     */
+    interface Tail {
+        Long getUserId();
+
+        Long getDelta();
+
+        Long getAfterSeq();
+    }
+
+    /**
+     * Sum of entries of a user and creation date of the latest one.
+     */
+    interface Range {
+        Long getDelta();
+
+        Instant getCreatedDate();
+    }
+}
@@ -1,8 +1,10 @@
 package dev.rick.tree.repository;
 
 import dev.rick.tree.domain.Bank;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -26,6 +28,10 @@ public interface BankRepository extends JpaRepository<Bank, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Bank> findAllWithEagerRelationshipsAfter(Long id, Pageable pageable) {
+        return this.findAllWithToOneRelationshipsAfter(id, pageable);
+    }
+
     @Query(
         value = "select distinct bank from Bank bank left join fetch bank.assignedTo",
         countQuery = "select count(distinct bank) from Bank bank"
@@ -37,4 +43,91 @@ public interface BankRepository extends JpaRepository<Bank, Long> {
 
     @Query("select bank from Bank bank left join fetch bank.assignedTo where bank.id =:id")
     Optional<Bank> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select bank from Bank bank left join fetch bank.assignedTo where bank.id > :id order by bank.id")
+    List<Bank> findAllWithToOneRelationshipsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Gets a page of banks with a seek on the primary key, whose cost does not depend on the depth of the page.
+     *
+     * @param id the id following which the page starts.
+     * @param pageable the limit of the page.
+     * @return the banks in id order.
+     */
+    @Query("select bank from Bank bank where bank.id > :id order by bank.id")
+    List<Bank> findAllAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select bank.id from Bank bank where bank.assignedTo.id = :userId")
+    Optional<Long> findIdByAssignedToId(@Param("userId") Long userId);
+
+    @Query("select bank.assignedTo.id from Bank bank where bank.id = :id")
+    Optional<Long> findAssignedToIdById(@Param("id") Long id);
+
+    @Query("select bank.treesowned from Bank bank where bank.assignedTo.id = :userId")
+    Optional<Integer> findTreesownedByAssignedToId(@Param("userId") Long userId);
+
+    /**
+     * Adds trees to the bank of a user with a single {@code UPDATE}, so concurrent credits are never lost.
+     *
+     * @param userId the id of the user.
+     * @param amount the number of trees to add.
+     * @return the number of updated banks, {@code 0} if the user has no bank.
+     */
+    @Modifying
+    @Query(
+        "update Bank bank set bank.treesowned = coalesce(bank.treesowned, 0) + :amount, bank.version = bank.version + 1 " +
+        "where bank.assignedTo.id = :userId"
+    )
+    int incrementTreesownedByAssignedToId(@Param("userId") Long userId, @Param("amount") int amount);
+
+    @Modifying
+    @Query(
+        "update Bank bank set bank.treesowned = coalesce(bank.treesowned, 0) + :amount, bank.version = bank.version + 1 " +
+        "where bank.id in :ids"
+    )
+    int incrementTreesownedByIdIn(@Param("ids") Collection<Long> ids, @Param("amount") int amount);
+
+    @Query(
+        "select bank.id as id, bank.assignedTo.id as userId, bank.treesowned as treesowned from Bank bank" +
+        " where bank.assignedTo.id between :fromId and :toId"
+    )
+    List<BankTreesowned> findTreesownedByAssignedToIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("select bank.id as id, bank.assignedTo.id as userId, bank.treesowned as treesowned from Bank bank where bank.id in :ids")
+    List<BankTreesowned> findTreesownedByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gets banks, locked until the end of the transaction so they are not credited while they are repaired.
+     *
+     * @param ids the ids of the banks.
+     * @return the banks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select bank from Bank bank where bank.id in :ids")
+    List<Bank> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Removes trees from a bank with a single {@code UPDATE}, unless it owns fewer trees than the amount.
+     *
+     * @param id the id of the bank.
+     * @param amount the number of trees to remove.
+     * @return {@code 1} if the bank was updated, {@code 0} if it does not exist or owns fewer trees.
+     */
+    @Modifying
+    @Query(
+        "update Bank bank set bank.treesowned = bank.treesowned - :amount, bank.version = bank.version + 1 " +
+        "where bank.id = :id and bank.treesowned >= :amount"
+    )
+    int decrementTreesownedById(@Param("id") Long id, @Param("amount") int amount);
+
+    /**
+     * Number of trees owned by the bank of a user.
+     */
+    interface BankTreesowned {
+        Long getId();
+
+        Long getUserId();
+
+        Integer getTreesowned();
+    }
 }
@@ -0,0 +1,26 @@
+package dev.rick.tree.repository;
+
+import dev.rick.tree.domain.BankSnapshot;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the BankSnapshot entity.
+ */
+@Repository
+public interface BankSnapshotRepository extends JpaRepository<BankSnapshot, BankSnapshot.Key> {
+    Optional<BankSnapshot> findFirstByUserIdOrderBySeqDesc(Long userId);
+
+    Optional<BankSnapshot> findFirstByUserIdAndCreatedDateLessThanEqualOrderBySeqDesc(Long userId, Instant at);
+
+    @Query(
+        "select snapshot from BankSnapshot snapshot where snapshot.userId in :userIds" +
+        " and snapshot.seq = (select max(latest.seq) from BankSnapshot latest where latest.userId = snapshot.userId)"
+    )
+    List<BankSnapshot> findLatestByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,31 @@
+package dev.rick.tree.repository;
+
+import dev.rick.tree.domain.TimerHistory;
+import java.util.Collection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the TimerHistory entity.
+ */
+@Repository
+public interface TimerHistoryRepository extends JpaRepository<TimerHistory, Long> {
+    Page<TimerHistory> findAllByAssignedToId(Long assignedToId, Pageable pageable);
+
+    /**
+     * Copies timers to the history with a single {@code INSERT ... SELECT}.
+     *
+     * @param ids the ids of the timers.
+     * @return the number of archived timers.
+     */
+    @Modifying
+    @Query(
+        "insert into TimerHistory (id, duration, expirationTime, status, assignedToId) " +
+        "select timer.id, timer.duration, timer.expirationTime, timer.status, timer.assignedTo.id from Timer timer " +
+        "where timer.id in :ids"
+    )
+    int archiveByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,13 +1,22 @@
 package dev.rick.tree.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Spring Data JPA repository for the Timer entity.
@@ -26,6 +35,10 @@ public interface TimerRepository extends JpaRepository<Timer, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Timer> findAllWithEagerRelationshipsAfter(Long id, Pageable pageable) {
+        return this.findAllWithToOneRelationshipsAfter(id, pageable);
+    }
+
     @Query(
         value = "select distinct timer from Timer timer left join fetch timer.assignedTo",
         countQuery = "select count(distinct timer) from Timer timer"
@@ -37,4 +50,167 @@ public interface TimerRepository extends JpaRepository<Timer, Long> {
 
     @Query("select timer from Timer timer left join fetch timer.assignedTo where timer.id =:id")
     Optional<Timer> findOneWithToOneRelationships(@Param("id") Long id);
+
+    @Query("select timer from Timer timer left join fetch timer.assignedTo where timer.id > :id order by timer.id")
+    List<Timer> findAllWithToOneRelationshipsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Gets a page of timers with a seek on the primary key, whose cost does not depend on the depth of the page.
+     *
+     * @param id the id following which the page starts.
+     * @param pageable the limit of the page.
+     * @return the timers in id order.
+     */
+    @Query("select timer from Timer timer where timer.id > :id order by timer.id")
+    List<Timer> findAllAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams all the timers with their owner, in id order.
+     * <p>
+     * Rows are fetched 1000 at a time, read-only and without going through the second level cache. The stream must be
+     * consumed and closed within a transaction.
+     *
+     * @return the timers.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select timer from Timer timer left join fetch timer.assignedTo order by timer.id")
+    Stream<Timer> streamAllWithToOneRelationships();
+
+    List<Timer> findAllByAssignedToIdIn(Collection<Long> userIds);
+
+    @Query(
+        "select timer.id as id, timer.duration as duration, timer.expirationTime as expirationTime, " +
+        "user.id as userId, user.login as userLogin " +
+        "from Timer timer left join timer.assignedTo user where timer.status = :status"
+    )
+    List<TimerExpiration> findAllExpirationsByStatus(@Param("status") TimerStatus status);
+
+    @Query(
+        "select timer.id as id, timer.duration as duration, timer.expirationTime as expirationTime, " +
+        "user.id as userId, user.login as userLogin " +
+        "from Timer timer left join timer.assignedTo user where timer.id in :ids"
+    )
+    List<TimerExpiration> findAllExpirationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select timer.id from Timer timer where timer.status = :status")
+    List<Long> findAllIdsByStatus(@Param("status") TimerStatus status);
+
+    @Query(
+        "select timer.id as id, timer.expirationTime as expirationTime from Timer timer " +
+        "where timer.id in :ids and timer.status = :status"
+    )
+    List<TimerExpiration> findAllExpirationsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") TimerStatus status);
+
+    @Query(
+        "select timer.id as id, timer.expirationTime as expirationTime from Timer timer " +
+        "where timer.status = :status and timer.expirationTime < :now order by timer.expirationTime"
+    )
+    List<TimerExpiration> findAllOverdueByStatus(@Param("status") TimerStatus status, @Param("now") ZonedDateTime now, Pageable pageable);
+
+    /**
+     * Expires the running timers that are still overdue, so a timer restarted since it was found overdue keeps running.
+     *
+     * @param ids the ids of the overdue timers.
+     * @param now the time they were found overdue at, as passed to {@link #findAllOverdueByStatus}.
+     * @return the number of expired timers.
+     */
+    default int expireOverdueTimers(Collection<Long> ids, ZonedDateTime now) {
+        return this.updateStatusByIdInAndExpirationTimeBefore(ids, TimerStatus.Running, TimerStatus.Expired, now);
+    }
+
+    /**
+     * Expires the running timers whose expiration time has come, so a timer restarted since it was found due keeps
+     * running.
+     *
+     * @param ids the ids of the due timers.
+     * @param now the current time.
+     * @return the number of expired timers.
+     */
+    default int expireRunningTimersDueBy(Collection<Long> ids, ZonedDateTime now) {
+        return this.updateStatusByIdInAndExpirationTimeNotAfter(ids, TimerStatus.Running, TimerStatus.Expired, now);
+    }
+
+    @Modifying
+    @Transactional
+    @Query(
+        "update Timer timer set timer.status = :newStatus " +
+        "where timer.id in :ids and timer.status = :oldStatus and timer.expirationTime < :now"
+    )
+    int updateStatusByIdInAndExpirationTimeBefore(
+        @Param("ids") Collection<Long> ids,
+        @Param("oldStatus") TimerStatus oldStatus,
+        @Param("newStatus") TimerStatus newStatus,
+        @Param("now") ZonedDateTime now
+    );
+
+    @Modifying
+    @Transactional
+    @Query(
+        "update Timer timer set timer.status = :newStatus " +
+        "where timer.id in :ids and timer.status = :oldStatus and timer.expirationTime <= :now"
+    )
+    int updateStatusByIdInAndExpirationTimeNotAfter(
+        @Param("ids") Collection<Long> ids,
+        @Param("oldStatus") TimerStatus oldStatus,
+        @Param("newStatus") TimerStatus newStatus,
+        @Param("now") ZonedDateTime now
+    );
+
+    @Query(
+        "select timer.id from Timer timer where timer.status in :statuses and timer.expirationTime < :before order by timer.expirationTime"
+    )
+    List<Long> findAllIdsByStatusInAndExpirationTimeBefore(
+        @Param("statuses") Collection<TimerStatus> statuses,
+        @Param("before") ZonedDateTime before,
+        Pageable pageable
+    );
+
+    @Modifying
+    @Query("delete from Timer timer where timer.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks a finished timer as completed, unless it already is.
+     *
+     * @param id the id of the timer.
+     * @param now the current time, the expiration time of the timer must not be after it.
+     * @return {@code 1} if the timer was completed by this call, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query(
+        "update Timer timer set timer.status = dev.rick.tree.domain.enumeration.TimerStatus.Completed " +
+        "where timer.id = :id and timer.expirationTime <= :now " +
+        "and (timer.status is null or timer.status <> dev.rick.tree.domain.enumeration.TimerStatus.Completed)"
+    )
+    int completeFinishedTimer(@Param("id") Long id, @Param("now") ZonedDateTime now);
+
+    /**
+     * Projection of the columns needed to schedule a {@link Timer}, without loading its user.
+     */
+    interface TimerExpiration {
+        Long getId();
+
+        ZonedDateTime getExpirationTime();
+
+        /**
+         * Only selected by {@link #findAllExpirationsByStatus(TimerStatus)} and {@link #findAllExpirationsByIdIn(Collection)}.
+         */
+        Integer getDuration();
+
+        /**
+         * Only selected by {@link #findAllExpirationsByStatus(TimerStatus)} and {@link #findAllExpirationsByIdIn(Collection)}.
+         */
+        Long getUserId();
+
+        /**
+         * Only selected by {@link #findAllExpirationsByStatus(TimerStatus)} and {@link #findAllExpirationsByIdIn(Collection)}.
+         */
+        String getUserLogin();
+    }
 }
@@ -0,0 +1,40 @@
+package dev.rick.tree.repository;
+
+import dev.rick.tree.domain.TreeImport;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the TreeImport entity.
+ */
+@Repository
+public interface TreeImportRepository extends JpaRepository<TreeImport, String> {
+    /**
+     * Advances the progress of an import, if no other import with the same key advanced it in the meantime.
+     *
+     * @param key the key of the import.
+     * @param from the number of committed rows the chunk starts at.
+     * @param to the number of committed rows once the chunk is committed.
+     * @param imported the number of rows of the chunk that were imported.
+     * @param rejected the number of rows of the chunk that were rejected.
+     * @param now the current time.
+     * @return {@code 1} if the progress was advanced, {@code 0} otherwise.
+     */
+    @Modifying
+    @Query(
+        "update TreeImport treeImport set treeImport.rowsCommitted = :to," +
+        " treeImport.rowsImported = treeImport.rowsImported + :imported," +
+        " treeImport.rowsRejected = treeImport.rowsRejected + :rejected, treeImport.lastModifiedDate = :now" +
+        " where treeImport.importKey = :key and treeImport.rowsCommitted = :from"
+    )
+    int advance(
+        @Param("key") String key,
+        @Param("from") long from,
+        @Param("to") long to,
+        @Param("imported") long imported,
+        @Param("rejected") long rejected,
+        @Param("now") Instant now
+    );
+}
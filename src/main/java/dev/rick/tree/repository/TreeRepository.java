@@ -1,8 +1,16 @@
 package dev.rick.tree.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -17,6 +25,36 @@ public interface TreeRepository extends JpaRepository<Tree, Long> {
     @Query("select tree from Tree tree where tree.assignedTo.login = ?#{principal.username}")
     List<Tree> findByAssignedToIsCurrentUser();
 
+    /**
+     * Gets the id and type of the trees of a user, filtering on the {@code assigned_to_id} column without joining the
+     * users.
+     *
+     * @param userId the id of the user.
+     * @return the trees in id order.
+     */
+    @QueryHints({ @QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT") })
+    @Query("select tree.id as id, tree.trees as trees from Tree tree where tree.assignedTo.id = :userId order by tree.id")
+    List<TreeIdType> findIdsAndTypesByAssignedToId(@Param("userId") Long userId);
+
+    @Query(
+        "select tree.assignedTo.id as userId, tree.trees as trees, count(tree) as total from Tree tree" +
+        " where tree.assignedTo.id in :userIds and tree.trees is not null group by tree.assignedTo.id, tree.trees"
+    )
+    List<TreeTypeCount> countByTreesForAssignedToIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Counts the trees of each user in a range of user ids, reading the {@code (assigned_to_id, id)} index only.
+     *
+     * @param fromId the first user id of the range.
+     * @param toId the last user id of the range.
+     * @return the number of trees of each user of the range owning trees.
+     */
+    @Query(
+        "select tree.assignedTo.id as userId, count(tree) as total from Tree tree" +
+        " where tree.assignedTo.id between :fromId and :toId group by tree.assignedTo.id"
+    )
+    List<UserTreeCount> countByAssignedToIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
     default Optional<Tree> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -40,4 +78,78 @@ public interface TreeRepository extends JpaRepository<Tree, Long> {
 
     @Query("select tree from Tree tree left join fetch tree.assignedTo where tree.id =:id")
     Optional<Tree> findOneWithToOneRelationships(@Param("id") Long id);
+
+    /**
+     * Gets a page of trees as {@link TreeRow}s with a seek on the primary key, without loading any entity.
+     *
+     * @param id the id following which the page starts.
+     * @param pageable the limit of the page.
+     * @return the trees in id order.
+     */
+    @QueryHints({ @QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT") })
+    @Query(
+        "select tree.id as id, tree.trees as trees, user.id as assignedToId, user.login as assignedToLogin" +
+        " from Tree tree left join tree.assignedTo user where tree.id > :id order by tree.id"
+    )
+    List<TreeRow> findRowsAfter(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams all the trees with their owner, in id order.
+     * <p>
+     * Rows are fetched 1000 at a time, read-only and without going through the second level cache. The stream must be
+     * consumed and closed within a transaction.
+     *
+     * @return the trees.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE"),
+        }
+    )
+    @Query("select tree from Tree tree left join fetch tree.assignedTo order by tree.id")
+    Stream<Tree> streamAllWithToOneRelationships();
+
+    /**
+     * Id, {@link TreeType} and owner id and login of a tree.
+     */
+    interface TreeRow {
+        Long getId();
+
+        TreeType getTrees();
+
+        Long getAssignedToId();
+
+        String getAssignedToLogin();
+    }
+
+    /**
+     * Id and {@link TreeType} of a tree.
+     */
+    interface TreeIdType {
+        Long getId();
+
+        TreeType getTrees();
+    }
+
+    /**
+     * Number of trees of a {@link TreeType} owned by a user.
+     */
+    interface TreeTypeCount {
+        Long getUserId();
+
+        TreeType getTrees();
+
+        Long getTotal();
+    }
+
+    /**
+     * Number of trees owned by a user.
+     */
+    interface UserTreeCount {
+        Long getUserId();
+
+        Long getTotal();
+    }
 }
@@ -0,0 +1,44 @@
+package dev.rick.tree.repository;
+
+import dev.rick.tree.domain.UserForestSummary;
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the UserForestSummary entity.
+ */
+@Repository
+public interface UserForestSummaryRepository extends JpaRepository<UserForestSummary, UserForestSummary.Key> {
+    /**
+     * Gets the totals of a user, as read from the database rather than from rows managed by the current transaction.
+     *
+     * @param userId the id of the user.
+     * @return the total of each {@link TreeType} the user has a row for.
+     */
+    @Query("select summary.treeType as treeType, summary.total as total from UserForestSummary summary where summary.userId = :userId")
+    List<TreeTypeTotal> findTotalsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(
+        "update UserForestSummary summary set summary.total = summary.total + :delta" +
+        " where summary.userId = :userId and summary.treeType = :treeType"
+    )
+    int incrementTotal(@Param("userId") Long userId, @Param("treeType") TreeType treeType, @Param("delta") long delta);
+
+    @Modifying
+    @Query("delete from UserForestSummary summary where summary.userId in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Number of trees of a {@link TreeType} owned by a user.
+     */
+    interface TreeTypeTotal {
+        TreeType getTreeType();
+
+        Long getTotal();
+    }
+}
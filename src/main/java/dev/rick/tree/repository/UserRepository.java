@@ -2,12 +2,15 @@ package dev.rick.tree.repository;
 
 import dev.rick.tree.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,6 +21,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    String USER_IDS_BY_LOGIN_CACHE = "userIdsByLogin";
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
@@ -33,4 +38,45 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    @Query("select user.id from User user where user.id > :id order by user.id")
+    List<Long> findAllIdsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select min(user.id) from User user")
+    Optional<Long> findMinId();
+
+    @Query("select max(user.id) from User user")
+    Optional<Long> findMaxId();
+
+    /**
+     * Gets the id of a user, for the current-user queries of tokens that do not carry it.
+     *
+     * @param login the login of the user.
+     * @return the id of the user.
+     */
+    @Cacheable(cacheNames = USER_IDS_BY_LOGIN_CACHE)
+    @Query("select user.id from User user where user.login = :login")
+    Optional<Long> findIdByLogin(@Param("login") String login);
+
+    /**
+     * Locks a user until the end of the transaction, so the rows created once per user are not inserted twice by
+     * concurrent transactions.
+     *
+     * @param id the id of the user.
+     * @return the id of the user, or empty if the user does not exist.
+     */
+    @Query(value = "select id from jhi_user where id = :id for update", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query("select user.login as login, user.id as id from User user where user.login in :logins")
+    List<LoginId> findIdsByLoginIn(@Param("logins") Collection<String> logins);
+
+    /**
+     * The id of a user with its login.
+     */
+    interface LoginId {
+        String getLogin();
+
+        Long getId();
+    }
 }
@@ -0,0 +1,28 @@
+package dev.rick.tree.security;
+
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Spring Security user also carrying the id of the {@link dev.rick.tree.domain.User}, so the current user can be
+ * resolved without looking up its login.
+ */
+public class AuthenticatedUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    /**
+     * @return the id of the user, or {@code null} if it is not known, e.g. for a token issued before ids were added.
+     */
+    public Long getId() {
+        return id;
+    }
+}
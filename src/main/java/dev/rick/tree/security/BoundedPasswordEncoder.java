@@ -0,0 +1,127 @@
+package dev.rick.tree.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} running a delegate on a dedicated executor with a bounded number of threads and a bounded queue.
+ * <p>
+ * Hashing a password with BCrypt takes tens of milliseconds of CPU, so a burst of logins or registrations on the web
+ * threads would starve every other endpoint. Here at most {@code threads} passwords are hashed at a time, and callers
+ * wait for their turn in the queue, without using CPU. When the queue is full, the call fails right away with a
+ * {@link PasswordHashingRejectedException}, answered with {@code 503 (Service Unavailable)}.
+ * <p>
+ * The hashing time and the time spent in the queue are published as the {@code security.password.hash} and
+ * {@code security.password.hash.wait} timers, and the queue depth as the {@code security.password.hash.queue} gauge.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+
+    private final Timer matchesTimer;
+
+    private final Timer waitTimer;
+
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor =
+            new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+        this.encodeTimer = hashTimer("encode").register(meterRegistry);
+        this.matchesTimer = hashTimer("matches").register(meterRegistry);
+        this.waitTimer =
+            Timer
+                .builder("security.password.hash.wait")
+                .description("Time spent by passwords waiting to be hashed")
+                .register(meterRegistry);
+        this.rejectedCounter =
+            Counter
+                .builder("security.password.hash.rejected")
+                .description("Passwords not hashed because the password hashing queue was full")
+                .register(meterRegistry);
+        Gauge
+            .builder("security.password.hash.queue", executor, pool -> pool.getQueue().size())
+            .description("Passwords waiting to be hashed")
+            .register(meterRegistry);
+        Gauge
+            .builder("security.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Passwords being hashed")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Timer.Builder hashTimer(String operation) {
+        return Timer.builder("security.password.hash").description("Time spent hashing passwords").tag("operation", operation);
+    }
+
+    private <T> T run(Timer timer, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future =
+                executor.submit(() -> {
+                    waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    return timer.recordCallable(task);
+                });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many passwords are being hashed", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for the password to be hashed", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
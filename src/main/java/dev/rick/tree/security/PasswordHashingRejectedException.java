@@ -0,0 +1,23 @@
+package dev.rick.tree.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * This exception is thrown when a password cannot be hashed or matched because the password hashing executor is
+ * saturated.
+ * <p>
+ * It is an {@link InternalAuthenticationServiceException}, so it is not mistaken for bad credentials during
+ * authentication.
+ */
+public class PasswordHashingRejectedException extends InternalAuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable t) {
+        super(message, t);
+    }
+}
@@ -26,6 +26,22 @@ public final class SecurityUtils {
         return Optional.ofNullable(extractPrincipal(securityContext.getAuthentication()));
     }
 
+    /**
+     * Get the id of the current user, as carried by its JWT.
+     * <p>
+     * The id is not known for users authenticated otherwise, or with a token issued before ids were added to tokens;
+     * callers then fall back to the login, see {@link dev.rick.tree.service.UserService#getCurrentUserId()}.
+     *
+     * @return the id of the current user.
+     */
+    public static Optional<Long> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return Optional.ofNullable(((AuthenticatedUser) authentication.getPrincipal()).getId());
+        }
+        return Optional.empty();
+    }
+
     private static String extractPrincipal(Authentication authentication) {
         if (authentication == null) {
             return null;
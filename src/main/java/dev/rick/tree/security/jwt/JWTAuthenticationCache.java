@@ -0,0 +1,112 @@
+package dev.rick.tree.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Supplier;
+import org.ehcache.UserManagedCache;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.builders.UserManagedCacheBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Bounded cache of the {@link Authentication} built from verified tokens, keyed by the SHA-256 hash of the token.
+ * <p>
+ * The entries are held by an on-heap Ehcache cache of at most {@code maxSize} entries, which expires each entry with
+ * its token, so an expired token is parsed again and rejected. When the cache is full, Ehcache evicts entries, which are
+ * only parsed again.
+ */
+class JWTAuthenticationCache {
+
+    private final UserManagedCache<String, Entry> entries;
+
+    JWTAuthenticationCache(int maxSize) {
+        this.entries =
+            maxSize > 0
+                ? UserManagedCacheBuilder
+                    .newUserManagedCacheBuilder(String.class, Entry.class)
+                    .withResourcePools(ResourcePoolsBuilder.heap(maxSize))
+                    .withExpiry(new TokenExpiry())
+                    .build(true)
+                : null;
+    }
+
+    /**
+     * Gets the authentication of a token.
+     *
+     * @param token the token.
+     * @return the authentication, or {@code null} if the token is not cached or expired.
+     */
+    Authentication get(String token) {
+        if (entries == null) {
+            return null;
+        }
+        Entry entry = entries.get(hash(token));
+        return entry != null ? entry.authentication : null;
+    }
+
+    /**
+     * Caches the authentication of a verified token.
+     *
+     * @param token the token.
+     * @param authentication the authentication built from the token.
+     * @param expiresAt the expiration of the token, in milliseconds since the epoch.
+     */
+    void put(String token, Authentication authentication, long expiresAt) {
+        if (entries != null) {
+            entries.put(hash(token), new Entry(authentication, expiresAt));
+        }
+    }
+
+    void close() {
+        if (entries != null) {
+            entries.close();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class Entry {
+
+        private final Authentication authentication;
+
+        private final long expiresAt;
+
+        Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Expires an entry when its token expires, an already expired token is not cached.
+     */
+    private static class TokenExpiry implements ExpiryPolicy<String, Entry> {
+
+        @Override
+        public Duration getExpiryForCreation(String key, Entry value) {
+            return Duration.ofMillis(Math.max(0, value.expiresAt - System.currentTimeMillis()));
+        }
+
+        @Override
+        public Duration getExpiryForAccess(String key, Supplier<? extends Entry> value) {
+            // Unchanged.
+            return null;
+        }
+
+        @Override
+        public Duration getExpiryForUpdate(String key, Supplier<? extends Entry> oldValue, Entry newValue) {
+            return getExpiryForCreation(key, newValue);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package dev.rick.tree.security.jwt;
 
+import dev.rick.tree.config.ApplicationProperties;
 import dev.rick.tree.management.SecurityMetersService;
+import dev.rick.tree.security.AuthenticatedUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -9,13 +11,13 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
@@ -27,6 +29,8 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final String USER_ID_KEY = "uid";
+
     private static final String INVALID_JWT_TOKEN = "Invalid JWT token.";
 
     private final Key key;
@@ -39,7 +43,13 @@ public class TokenProvider {
 
     private final SecurityMetersService securityMetersService;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties, SecurityMetersService securityMetersService) {
+    private final JWTAuthenticationCache authenticationCache;
+
+    public TokenProvider(
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        SecurityMetersService securityMetersService
+    ) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getBase64Secret();
         if (!ObjectUtils.isEmpty(secret)) {
@@ -60,6 +70,12 @@ public class TokenProvider {
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt().getTokenValidityInSecondsForRememberMe();
 
         this.securityMetersService = securityMetersService;
+        this.authenticationCache = new JWTAuthenticationCache(applicationProperties.getSecurity().getJwt().getCacheSize());
+    }
+
+    @PreDestroy
+    public void close() {
+        authenticationCache.close();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -73,54 +89,130 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
-            .builder()
-            .setSubject(authentication.getName())
-            .claim(AUTHORITIES_KEY, authorities)
-            .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+        JwtBuilder builder = Jwts.builder().setSubject(authentication.getName()).claim(AUTHORITIES_KEY, authorities);
+        Long userId = authentication.getPrincipal() instanceof AuthenticatedUser
+            ? ((AuthenticatedUser) authentication.getPrincipal()).getId()
+            : null;
+        if (userId != null) {
+            // The id lets current-user queries filter on it directly, instead of joining on the login.
+            builder.claim(USER_ID_KEY, userId);
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS512).setExpiration(validity).compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
-
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
-
-        User principal = new User(claims.getSubject(), "", authorities);
+    /**
+     * Resolves the authentication of a token, verifying and parsing the token only if it was not verified before.
+     *
+     * @param token the token.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> resolveAuthentication(String token) {
+        Authentication authentication = authenticationCache.get(token);
+        if (authentication != null) {
+            return Optional.of(authentication);
+        }
+        ParsedToken parsed = parseToken(token);
+        if (!parsed.isValid()) {
+            return Optional.empty();
+        }
+        authentication = toAuthentication(parsed.getClaims(), token);
+        Date expiration = parsed.getClaims().getExpiration();
+        if (expiration != null) {
+            authenticationCache.put(token, authentication, expiration.getTime());
+        }
+        return Optional.of(authentication);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    public Authentication getAuthentication(String token) {
+        return toAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
     }
 
     public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
+        return parseToken(authToken).isValid();
+    }
 
-            return true;
+    /**
+     * Verifies and parses a token, tracking the cause of the failure if it is not valid.
+     *
+     * @param token the token.
+     * @return the claims of the token, or the cause of the failure.
+     */
+    public ParsedToken parseToken(String token) {
+        try {
+            return new ParsedToken(jwtParser.parseClaimsJws(token).getBody(), null);
         } catch (ExpiredJwtException e) {
             this.securityMetersService.trackTokenExpired();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return new ParsedToken(null, TokenFailure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             this.securityMetersService.trackTokenUnsupported();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return new ParsedToken(null, TokenFailure.UNSUPPORTED);
         } catch (MalformedJwtException e) {
             this.securityMetersService.trackTokenMalformed();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return new ParsedToken(null, TokenFailure.MALFORMED);
         } catch (SignatureException e) {
             this.securityMetersService.trackTokenInvalidSignature();
 
             log.trace(INVALID_JWT_TOKEN, e);
+            return new ParsedToken(null, TokenFailure.INVALID_SIGNATURE);
         } catch (IllegalArgumentException e) { // TODO: should we let it bubble (no catch), to avoid defensive programming and follow the fail-fast principle?
             log.error("Token validation error {}", e.getMessage());
+            return new ParsedToken(null, TokenFailure.INVALID);
         }
+    }
 
-        return false;
+    private Authentication toAuthentication(Claims claims, String token) {
+        Collection<? extends GrantedAuthority> authorities = Arrays
+            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+
+        AuthenticatedUser principal = new AuthenticatedUser(claims.get(USER_ID_KEY, Long.class), claims.getSubject(), "", authorities);
+
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    }
+
+    /**
+     * The cause of the rejection of a token.
+     */
+    public enum TokenFailure {
+        EXPIRED,
+        UNSUPPORTED,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        INVALID,
+    }
+
+    /**
+     * The outcome of the verification of a token: its claims if it is valid, otherwise the cause of the failure.
+     */
+    public static class ParsedToken {
+
+        private final Claims claims;
+
+        private final TokenFailure failure;
+
+        ParsedToken(Claims claims, TokenFailure failure) {
+            this.claims = claims;
+            this.failure = failure;
+        }
+
+        public boolean isValid() {
+            return failure == null;
+        }
+
+        public Claims getClaims() {
+            return claims;
+        }
+
+        public TokenFailure getFailure() {
+            return failure;
+        }
     }
 }
@@ -0,0 +1,227 @@
+package dev.rick.tree.security.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.management.SecurityMetersService;
+import dev.rick.tree.security.SecurityUtils;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filters incoming requests with token buckets per client IP and per login, configured per route with
+ * {@code application.security.rate-limit.routes}.
+ * <p>
+ * The login is the one of the current user, installed by the {@link dev.rick.tree.security.jwt.JWTFilter} before this
+ * filter, or for unauthenticated requests the {@code login-field} of their JSON body, so guessing the password of one
+ * login from many addresses is limited as well. Rejected requests get a {@code 429 (Too Many Requests)} with a
+ * {@code Retry-After} header, and are counted by the {@link SecurityMetersService}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGIN_BODY_SIZE = 4096;
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final List<Rule> rules;
+
+    private final TokenBuckets buckets;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(
+        ApplicationProperties.Security.RateLimit rateLimit,
+        SecurityMetersService securityMetersService,
+        ObjectMapper objectMapper
+    ) {
+        List<ApplicationProperties.Security.RateLimit.Route> routes = rateLimit.getRoutes();
+        this.rules = IntStream.range(0, routes.size()).mapToObj(i -> new Rule(i, routes.get(i))).collect(Collectors.toList());
+        this.buckets = new TokenBuckets(rateLimit.getMaxBuckets(), rateLimit.getSweepInterval().toNanos());
+        this.securityMetersService = securityMetersService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Optional<Rule> matched = rules.stream().filter(rule -> rule.matcher.matches(request)).findFirst();
+        if (matched.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Rule rule = matched.get();
+        long wait = buckets.tryAcquire(rule.index + "|ip|" + request.getRemoteAddr(), rule.intervalNanos, rule.capacity);
+        if (wait > 0) {
+            securityMetersService.trackRateLimitedByIp();
+            reject(request, response, wait);
+            return;
+        }
+
+        HttpServletRequest filtered = request;
+        String login = SecurityUtils.getCurrentUserLogin().orElse(null);
+        if (login == null && rule.loginField != null && isSmallJson(request)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            login = readLogin(cached.body, rule.loginField);
+            filtered = cached;
+        }
+        if (login != null) {
+            wait = buckets.tryAcquire(rule.index + "|login|" + login.toLowerCase(Locale.ENGLISH), rule.intervalNanos, rule.capacity);
+            if (wait > 0) {
+                securityMetersService.trackRateLimitedByLogin();
+                reject(request, response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(filtered, response);
+    }
+
+    @Override
+    public void destroy() {
+        buckets.close();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        log.debug("Rate limit exceeded for {} {} from {}", request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    }
+
+    private boolean isSmallJson(HttpServletRequest request) {
+        long length = request.getContentLengthLong();
+        return (
+            length > 0 &&
+            length <= MAX_LOGIN_BODY_SIZE &&
+            StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE)
+        );
+    }
+
+    private String readLogin(byte[] body, String field) {
+        try {
+            String login = objectMapper.readTree(body).path(field).textValue();
+            return login == null || login.isBlank() ? null : login;
+        } catch (IOException e) {
+            // Not JSON, the request is rejected further on.
+            return null;
+        }
+    }
+
+    private static class Rule {
+
+        private final int index;
+
+        private final RequestMatcher matcher;
+
+        private final long intervalNanos;
+
+        private final int capacity;
+
+        private final String loginField;
+
+        Rule(int index, ApplicationProperties.Security.RateLimit.Route route) {
+            this.index = index;
+            this.matcher =
+                route.getMethods().isEmpty()
+                    ? new AntPathRequestMatcher(route.getPattern())
+                    : new OrRequestMatcher(
+                        route
+                            .getMethods()
+                            .stream()
+                            .map(method -> (RequestMatcher) new AntPathRequestMatcher(route.getPattern(), method))
+                            .collect(Collectors.toList())
+                    );
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / route.getRefillPerSecond());
+            this.capacity = route.getCapacity();
+            this.loginField = route.getLoginField();
+        }
+    }
+
+    /**
+     * Request whose body was read up front, to find the login, and is read again by the next filters.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // The body is already in memory, so it is all available right away.
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() == null ? StandardCharsets.UTF_8 : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
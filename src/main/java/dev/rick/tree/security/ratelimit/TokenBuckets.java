@@ -0,0 +1,86 @@
+package dev.rick.tree.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.ehcache.Cache;
+import org.ehcache.UserManagedCache;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.builders.UserManagedCacheBuilder;
+
+/**
+ * Bounded map of lock-free token buckets.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it is full again, so taking a token is one
+ * compare-and-set moving that time forward by the refill interval of a token, and a bucket is refused once that time is
+ * more than {@code capacity} intervals ahead. Buckets which are full again are the same as new ones, so they are evicted
+ * as idle every sweep interval. The buckets are held by an on-heap Ehcache cache of at most {@code maxBuckets} entries,
+ * which evicts buckets when it is full, only resetting their limits.
+ */
+class TokenBuckets {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final UserManagedCache<String, AtomicLong> buckets;
+
+    private final long sweepIntervalNanos;
+
+    private final AtomicLong nextSweep;
+
+    TokenBuckets(int maxBuckets, long sweepIntervalNanos) {
+        this.buckets =
+            UserManagedCacheBuilder
+                .newUserManagedCacheBuilder(String.class, AtomicLong.class)
+                .withResourcePools(ResourcePoolsBuilder.heap(maxBuckets))
+                .build(true);
+        this.sweepIntervalNanos = sweepIntervalNanos;
+        this.nextSweep = new AtomicLong(System.nanoTime() + sweepIntervalNanos);
+    }
+
+    /**
+     * Takes a token from a bucket.
+     *
+     * @param key the key of the bucket.
+     * @param intervalNanos the time to refill one token.
+     * @param capacity the maximum number of tokens of the bucket.
+     * @return {@code 0} if a token was taken, otherwise the time until the next token, in nanoseconds.
+     */
+    long tryAcquire(String key, long intervalNanos, int capacity) {
+        long now = System.nanoTime();
+        if (now - nextSweep.get() >= 0) {
+            sweep(now);
+        }
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            AtomicLong created = new AtomicLong(EMPTY);
+            AtomicLong existing = buckets.putIfAbsent(key, created);
+            bucket = existing != null ? existing : created;
+        }
+        long burstNanos = capacity * intervalNanos;
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    void close() {
+        buckets.close();
+    }
+
+    private void sweep(long now) {
+        long next = nextSweep.get();
+        // A single caller sweeps, the others go on.
+        if (now - next >= 0 && nextSweep.compareAndSet(next, now + sweepIntervalNanos)) {
+            for (Cache.Entry<String, AtomicLong> entry : buckets) {
+                if (entry.getValue().get() <= now) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory registry of the running {@link Timer}s, indexed by timer id and by user id.
+ * <p>
+ * A running timer does not change until it expires, so its reads can be served from here without a database round
+ * trip. Entries are detached snapshots holding the id and login of the owner only; they must not be modified. A timer
+ * whose expiration time has passed is no longer served, so callers fall back to the database for its final state.
+ */
+@Service
+public class ActiveTimerRegistry {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongObjectHashMap<Timer> byId = new LongObjectHashMap<>();
+
+    private final LongObjectHashMap<Timer> byUserId = new LongObjectHashMap<>();
+
+    /**
+     * Registers a snapshot of a running timer, replacing any previous entry for the same timer.
+     *
+     * @param timer the running timer, with an id and an expiration time.
+     * @return the registered snapshot.
+     */
+    public Timer put(Timer timer) {
+        Timer snapshot = snapshot(timer);
+        lock.writeLock().lock();
+        try {
+            Timer previous = byId.put(snapshot.getId(), snapshot);
+            if (previous != null) {
+                removeOwner(previous);
+            }
+            if (snapshot.getAssignedTo() != null) {
+                byUserId.put(snapshot.getAssignedTo().getId(), snapshot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Unregisters a timer.
+     *
+     * @param id the id of the timer.
+     * @return the removed snapshot, if the timer was registered.
+     */
+    public Optional<Timer> remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Timer removed = byId.remove(id);
+            if (removed != null) {
+                removeOwner(removed);
+            }
+            return Optional.ofNullable(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a running timer by id.
+     *
+     * @param id the id of the timer.
+     * @return the snapshot of the timer, or empty if it is unknown or its expiration time has passed.
+     */
+    public Optional<Timer> get(long id) {
+        Timer timer;
+        lock.readLock().lock();
+        try {
+            timer = byId.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return running(timer);
+    }
+
+    /**
+     * Gets the running timer of a user.
+     *
+     * @param userId the id of the user.
+     * @return the snapshot of the timer, or empty if the user has no timer or its expiration time has passed.
+     */
+    public Optional<Timer> getByUserId(long userId) {
+        Timer timer;
+        lock.readLock().lock();
+        try {
+            timer = byUserId.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return running(timer);
+    }
+
+    /**
+     * Gets all the registered timers, including those whose expiration time has passed but that are not expired yet.
+     *
+     * @return the snapshots of the timers.
+     */
+    public List<Timer> getAll() {
+        lock.readLock().lock();
+        try {
+            List<Timer> timers = new ArrayList<>(byId.size());
+            for (ObjectCursor<Timer> cursor : byId.values()) {
+                timers.add(cursor.value);
+            }
+            return timers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeOwner(Timer timer) {
+        if (timer.getAssignedTo() != null) {
+            long userId = timer.getAssignedTo().getId();
+            if (byUserId.get(userId) == timer) {
+                byUserId.remove(userId);
+            }
+        }
+    }
+
+    private static Optional<Timer> running(Timer timer) {
+        if (timer == null || !timer.getExpirationTime().isAfter(ZonedDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(timer);
+    }
+
+    private static Timer snapshot(Timer timer) {
+        Timer snapshot = new Timer()
+            .id(timer.getId())
+            .duration(timer.getDuration())
+            .expirationTime(timer.getExpirationTime())
+            .status(TimerStatus.Running);
+        User assignedTo = timer.getAssignedTo();
+        if (assignedTo != null && assignedTo.getId() != null) {
+            User owner = new User();
+            owner.setId(assignedTo.getId());
+            owner.setLogin(assignedTo.getLogin());
+            snapshot.setAssignedTo(owner);
+        }
+        return snapshot;
+    }
+}
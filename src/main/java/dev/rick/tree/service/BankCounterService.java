@@ -0,0 +1,237 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service crediting trees to the {@link Bank} of a user.
+ * <p>
+ * By default every credit is a single {@code UPDATE} of the bank row. When {@code application.bank.counter.striped} is
+ * enabled, credits are accumulated in a {@link LongAdder} per bank once their transaction commits, and flushed to the
+ * {@code bank} table every {@code application.bank.counter.flush-interval-ms} milliseconds, so concurrent credits to
+ * the same bank no longer wait for its row lock. Banks with the same pending delta are flushed with one bulk update.
+ * Reads through {@link #withPending(Bank)} add the pending delta to the persisted value, and the remaining deltas are
+ * flushed when the application shuts down. Credits are passed on to the {@link LeaderboardService} and recorded by the
+ * {@link BankLedgerService} in both modes, in striped mode when they are flushed, so concurrent credits of a user do
+ * not wait for each other on the head of its ledger either.
+ */
+@Service
+public class BankCounterService {
+
+    private final Logger log = LoggerFactory.getLogger(BankCounterService.class);
+
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final BankRepository bankRepository;
+
+    private final LeaderboardService leaderboardService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final BankLedgerService bankLedgerService;
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean striped;
+
+    private final int batchSize;
+
+    public BankCounterService(
+        BankRepository bankRepository,
+        LeaderboardService leaderboardService,
+        EntityVersionService entityVersionService,
+        BankLedgerService bankLedgerService,
+        UserRepository userRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Bank.Counter counter = applicationProperties.getBank().getCounter();
+        this.bankRepository = bankRepository;
+        this.leaderboardService = leaderboardService;
+        this.entityVersionService = entityVersionService;
+        this.bankLedgerService = bankLedgerService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.striped = counter.isStriped();
+        this.batchSize = counter.getBatchSize();
+        Gauge
+            .builder("bank.counter.pending", pending, map -> map.values().stream().mapToLong(LongAdder::sum).sum())
+            .description("Trees credited in memory and not yet flushed to the bank table")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Credits trees to the bank of a user, creating the bank if the user has none.
+     * <p>
+     * Concurrent first credits of a user wait for each other on the user, so a single bank is created and the others
+     * credit it. In striped mode the credit is only accumulated once the current transaction commits.
+     *
+     * @param user the user.
+     * @param amount the number of trees to credit.
+     * @return the number of trees owned by the user, including this credit.
+     */
+    public int credit(User user, int amount) {
+        if (!striped) {
+            entityVersionService.changed(Bank.class, user);
+            // The bank is locked before the head of the ledger, in the same order as the other bank updates.
+            if (bankRepository.incrementTreesownedByAssignedToId(user.getId(), amount) == 0) {
+                userRepository.lockById(user.getId());
+                if (bankRepository.incrementTreesownedByAssignedToId(user.getId(), amount) == 0) {
+                    Bank bank = bankRepository.save(new Bank().treesowned(amount).assignedTo(user));
+                    bankLedgerService.earn(user.getId(), amount);
+                    leaderboardService.set(bank);
+                    return bank.getTreesowned();
+                }
+            }
+            bankLedgerService.earn(user.getId(), amount);
+            leaderboardService.adjust(user, amount);
+            return bankRepository.findTreesownedByAssignedToId(user.getId()).orElse(amount);
+        }
+        Optional<Long> existingBankId = bankRepository.findIdByAssignedToId(user.getId());
+        if (existingBankId.isEmpty()) {
+            userRepository.lockById(user.getId());
+            existingBankId = bankRepository.findIdByAssignedToId(user.getId());
+        }
+        Long bankId = existingBankId.orElseGet(() -> {
+            Bank bank = bankRepository.save(new Bank().treesowned(0).assignedTo(user));
+            leaderboardService.set(bank);
+            return bank.getId();
+        });
+        TransactionCallbacks.afterCommit(() -> add(bankId, amount));
+        // Registered after the pending credit, so the new version is never served with the old count.
+        entityVersionService.changed(Bank.class, user);
+        leaderboardService.adjust(user, amount);
+        return bankRepository.findTreesownedByAssignedToId(user.getId()).orElse(0) + Math.toIntExact(getPending(bankId)) + amount;
+    }
+
+    /**
+     * Accumulates a delta for a bank, to be flushed on the next interval.
+     *
+     * @param bankId the id of the bank.
+     * @param delta the number of trees to add.
+     */
+    public void add(Long bankId, long delta) {
+        // Added under the lock of the bank in the map, which idle adders are dropped under as well, so a delta is never
+        // added to an adder being dropped.
+        pending.compute(
+            bankId,
+            (id, adder) -> {
+                LongAdder target = adder != null ? adder : new LongAdder();
+                target.add(delta);
+                return target;
+            }
+        );
+    }
+
+    public long getPending(Long bankId) {
+        LongAdder adder = pending.get(bankId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    /**
+     * Adds the pending delta of a bank to its persisted value.
+     *
+     * @param bank the persisted bank.
+     * @return the bank itself if it has no pending delta, otherwise a detached copy with the pending delta added.
+     */
+    public Bank withPending(Bank bank) {
+        long delta = bank.getId() != null ? getPending(bank.getId()) : 0;
+        if (delta == 0) {
+            return bank;
+        }
+        int persisted = bank.getTreesowned() != null ? bank.getTreesowned() : 0;
+        return new Bank()
+            .id(bank.getId())
+            .treesowned(persisted + Math.toIntExact(delta))
+            .assignedTo(bank.getAssignedTo())
+            .version(bank.getVersion());
+    }
+
+    /**
+     * Flushes the pending deltas to the bank table, and records them in the ledger of the owners of the banks.
+     * <p>
+     * This is scheduled to get fired every {@code application.bank.counter.flush-interval-ms} milliseconds.
+     *
+     * @return the number of updated banks.
+     */
+    @Scheduled(fixedDelayString = "${application.bank.counter.flush-interval-ms:1000}")
+    public int flush() {
+        // Banks with the same delta share a bulk update, most flushes only have a handful of distinct deltas.
+        Map<Long, List<Long>> idsByDelta = new TreeMap<>();
+        pending.forEach((bankId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                idsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(bankId);
+            }
+        });
+        if (idsByDelta.isEmpty()) {
+            dropIdleAdders();
+            return 0;
+        }
+        try {
+            Integer updated = transactionTemplate.execute(status -> {
+                int total = 0;
+                for (Map.Entry<Long, List<Long>> entry : idsByDelta.entrySet()) {
+                    List<Long> ids = entry.getValue();
+                    for (int from = 0; from < ids.size(); from += batchSize) {
+                        List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                        total += bankRepository.incrementTreesownedByIdIn(chunk, Math.toIntExact(entry.getKey()));
+                        for (BankRepository.BankTreesowned bank : bankRepository.findTreesownedByIdIn(chunk)) {
+                            bankLedgerService.earn(bank.getUserId(), entry.getKey());
+                        }
+                    }
+                }
+                return total;
+            });
+            log.debug("Flushed pending trees of {} banks", updated);
+            dropIdleAdders();
+            return updated != null ? updated : 0;
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not flush pending trees, retrying on next interval: {}", e.getMessage());
+            idsByDelta.forEach((delta, ids) -> ids.forEach(bankId -> add(bankId, delta)));
+            return 0;
+        }
+    }
+
+    private void dropIdleAdders() {
+        // Banks credited since the flush keep their adder, the others get a new one on their next credit. The sum is
+        // checked under the lock of the bank in the map, so no delta is added between the check and the removal.
+        pending.keySet().forEach(bankId -> pending.computeIfPresent(bankId, (id, adder) -> adder.sum() == 0 ? null : adder));
+    }
+
+    /**
+     * Flushes the remaining deltas when the application shuts down.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int updated = flush();
+        if (updated > 0) {
+            log.info("Flushed pending trees of {} banks on shutdown", updated);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.BankLedgerEntry;
+import dev.rick.tree.domain.BankSnapshot;
+import dev.rick.tree.domain.enumeration.LedgerEntryType;
+import dev.rick.tree.repository.BankLedgerRepository;
+import dev.rick.tree.repository.BankSnapshotRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recording every change of the trees owned by a user in the append-only {@code bank_ledger}.
+ * <p>
+ * Entries are inserted in the transaction changing the {@link Bank}, numbered from the {@code bank_ledger_seq} sequence,
+ * so appending an entry takes no lock besides the one of the bank row. The running balances are maintained by a job
+ * writing a {@link BankSnapshot} for every user with entries older than {@code application.bank.ledger.snapshot-delay-ms}
+ * since their last snapshot, and balances are read from the latest snapshot plus the entries after it.
+ * <p>
+ * Sequence numbers are taken before their transaction commits, so an entry may become visible after entries with greater
+ * numbers: the snapshot delay must exceed the longest transaction appending entries, plus the clock skew between nodes.
+ * <p>
+ * The ledger is the source of truth of the trees owned by a user, the {@code bank} table their current number served
+ * by the API. Trees pending in the {@link BankCounterService} are recorded when they are flushed.
+ */
+@Service
+@Transactional
+public class BankLedgerService {
+
+    private final Logger log = LoggerFactory.getLogger(BankLedgerService.class);
+
+    private final BankLedgerRepository bankLedgerRepository;
+
+    private final BankSnapshotRepository bankSnapshotRepository;
+
+    private final long snapshotDelayMs;
+
+    private Instant snapshottedUntil = Instant.EPOCH;
+
+    public BankLedgerService(
+        BankLedgerRepository bankLedgerRepository,
+        BankSnapshotRepository bankSnapshotRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.bankLedgerRepository = bankLedgerRepository;
+        this.bankSnapshotRepository = bankSnapshotRepository;
+        this.snapshotDelayMs = applicationProperties.getBank().getLedger().getSnapshotDelayMs();
+    }
+
+    /**
+     * Records trees earned by a user.
+     *
+     * @param userId the id of the user.
+     * @param amount the number of trees.
+     */
+    public void earn(Long userId, long amount) {
+        append(userId, LedgerEntryType.Earn, amount);
+    }
+
+    /**
+     * Records trees spent by a user.
+     *
+     * @param userId the id of the user.
+     * @param amount the number of trees.
+     */
+    public void spend(Long userId, long amount) {
+        append(userId, LedgerEntryType.Spend, -amount);
+    }
+
+    /**
+     * Records a bank set to a number of trees, or given to another user.
+     * <p>
+     * Numbers of trees are the persisted ones, without the trees pending in the {@link BankCounterService}, which are
+     * recorded for the owner of the bank when they are flushed.
+     *
+     * @param previousUserId the id of the previous owner of the bank, {@code null} if it had none.
+     * @param previousTrees the previous number of trees of the bank.
+     * @param userId the id of the owner of the bank, {@code null} if it has none.
+     * @param trees the number of trees of the bank.
+     */
+    public void adjust(Long previousUserId, long previousTrees, Long userId, long trees) {
+        if (Objects.equals(previousUserId, userId)) {
+            append(userId, LedgerEntryType.Adjust, trees - previousTrees);
+            return;
+        }
+        append(previousUserId, LedgerEntryType.Adjust, -previousTrees);
+        append(userId, LedgerEntryType.Adjust, trees);
+    }
+
+    /**
+     * Gets the number of trees owned by a user, according to the ledger.
+     *
+     * @param userId the id of the user.
+     * @return the balance of the user.
+     */
+    @Transactional(readOnly = true)
+    public long getBalance(Long userId) {
+        return getBalances(List.of(userId)).getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Gets the number of trees owned by users, according to the ledger.
+     * <p>
+     * The entries after the latest snapshot of each user are summed along with the number of that snapshot, which is
+     * then read by its key, so a snapshot written in between does not count the same entries twice.
+     *
+     * @param userIds the ids of the users.
+     * @return the balance of each user with ledger entries, the other users own no trees.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getBalances(Collection<Long> userIds) {
+        Map<Long, Long> balances = new HashMap<>();
+        List<BankSnapshot.Key> snapshotKeys = new ArrayList<>();
+        for (BankLedgerRepository.Tail tail : bankLedgerRepository.sumDeltasAfterLatestSnapshotByUserIdIn(userIds)) {
+            balances.put(tail.getUserId(), tail.getDelta());
+            if (tail.getAfterSeq() != null) {
+                snapshotKeys.add(new BankSnapshot.Key(tail.getUserId(), tail.getAfterSeq()));
+            }
+        }
+        for (BankSnapshot snapshot : bankSnapshotRepository.findAllById(snapshotKeys)) {
+            balances.merge(snapshot.getUserId(), snapshot.getTreesowned(), Long::sum);
+        }
+        // The other users had no entries after their latest snapshot, so a later one holds the same entries and more.
+        List<Long> otherUserIds = userIds.stream().filter(userId -> !balances.containsKey(userId)).collect(Collectors.toList());
+        if (!otherUserIds.isEmpty()) {
+            for (BankSnapshot snapshot : bankSnapshotRepository.findLatestByUserIdIn(otherUserIds)) {
+                balances.put(snapshot.getUserId(), snapshot.getTreesowned());
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Gets the number of trees owned by a user at a point in time, according to the ledger.
+     *
+     * @param userId the id of the user.
+     * @param at the point in time.
+     * @return the balance of the user.
+     */
+    @Transactional(readOnly = true)
+    public long getBalance(Long userId, Instant at) {
+        Optional<BankSnapshot> snapshot = bankSnapshotRepository.findFirstByUserIdAndCreatedDateLessThanEqualOrderBySeqDesc(userId, at);
+        long afterSeq = snapshot.map(BankSnapshot::getSeq).orElse(0L);
+        return snapshot.map(BankSnapshot::getTreesowned).orElse(0L) + bankLedgerRepository.sumDeltasAfterUntil(userId, afterSeq, at);
+    }
+
+    /**
+     * Snapshots the balances of the users with entries older than {@code application.bank.ledger.snapshot-delay-ms}
+     * since their last snapshot.
+     * <p>
+     * This is scheduled to get fired every {@code application.bank.ledger.snapshot-interval-ms} milliseconds.
+     *
+     * @return the number of snapshots written.
+     */
+    @Scheduled(fixedDelayString = "${application.bank.ledger.snapshot-interval-ms:60000}")
+    public int snapshot() {
+        return snapshot(Instant.now().minusMillis(snapshotDelayMs));
+    }
+
+    /**
+     * Snapshots the balances of the users with entries created up to a point in time since their last snapshot.
+     * <p>
+     * Each node looks for such users among the entries created since its previous run, less the snapshot delay for the
+     * entries that became visible late. A run racing another node on the same user fails on the primary key of the
+     * snapshot, and the next run finds the snapshot already written.
+     *
+     * @param until the point in time, entries created after it are left for a later run.
+     * @return the number of snapshots written.
+     */
+    public synchronized int snapshot(Instant until) {
+        Instant since = snapshottedUntil.equals(Instant.EPOCH)
+            ? Instant.EPOCH
+            : (snapshottedUntil.isBefore(until) ? snapshottedUntil : until).minusMillis(snapshotDelayMs);
+        int written = 0;
+        for (Long userId : bankLedgerRepository.findUserIdsByCreatedDateBetween(since, until)) {
+            Optional<BankSnapshot> last = bankSnapshotRepository.findFirstByUserIdOrderBySeqDesc(userId);
+            long afterSeq = last.map(BankSnapshot::getSeq).orElse(0L);
+            Long untilSeq = bankLedgerRepository.findLastSeqAfterUntil(userId, afterSeq, until);
+            if (untilSeq == null) {
+                continue;
+            }
+            BankLedgerRepository.Range range = bankLedgerRepository.sumDeltasBetween(userId, afterSeq, untilSeq);
+            Instant createdDate = last
+                .map(BankSnapshot::getCreatedDate)
+                .filter(date -> date.isAfter(range.getCreatedDate()))
+                .orElse(range.getCreatedDate());
+            bankSnapshotRepository.save(
+                new BankSnapshot()
+                    .userId(userId)
+                    .seq(untilSeq)
+                    .treesowned(last.map(BankSnapshot::getTreesowned).orElse(0L) + range.getDelta())
+                    .createdDate(createdDate)
+            );
+            written++;
+        }
+        snapshottedUntil = until;
+        if (written > 0) {
+            log.debug("Snapshotted the balances of {} users up to {}", written, until);
+        }
+        return written;
+    }
+
+    private void append(Long userId, LedgerEntryType type, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        bankLedgerRepository.save(new BankLedgerEntry().userId(userId).type(type).delta(delta).createdDate(Instant.now()));
+    }
+}
@@ -0,0 +1,339 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.cursors.LongLongCursor;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.BankDiscrepancyDTO;
+import dev.rick.tree.service.dto.BankReconciliationDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service comparing the number of trees of each {@link Bank} with the number of trees owned by its user.
+ * <p>
+ * The user id space is split into ranges of {@code application.bank.reconciliation.range-size} ids, checked on a
+ * {@link ForkJoinPool} of {@code application.bank.reconciliation.parallelism} threads. Each range is read in a
+ * repeatable-read transaction, with one grouped count of the {@code tree} table on its {@code assigned_to_id} index and
+ * one read of the banks of the range, so no query joins the two tables. Trees pending in the
+ * {@link BankCounterService} count as owned by the bank.
+ * <p>
+ * Discrepancies are counted and reported, and optionally repaired in batches of
+ * {@code application.bank.reconciliation.batch-size} banks. Trees can be spent or adjusted, so the number of trees of a
+ * user is not the balance of its bank: the {@link BankLedgerService} records every change and is the source of truth.
+ * The banks are locked, and the banks without pending trees which differ from the balance of their user in the ledger
+ * are set to it, and updated on the leaderboard; the ledger is left as is. Banks matching the ledger, and users owning
+ * trees without a bank, are only reported. Progress and throughput are published as the {@code bank.reconciliation.*}
+ * metrics.
+ */
+@Service
+public class BankReconciliationService {
+
+    private final Logger log = LoggerFactory.getLogger(BankReconciliationService.class);
+
+    private final BankRepository bankRepository;
+
+    private final TreeRepository treeRepository;
+
+    private final UserRepository userRepository;
+
+    private final BankCounterService bankCounterService;
+
+    private final BankLedgerService bankLedgerService;
+
+    private final LeaderboardService leaderboardService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final TransactionTemplate readTransactionTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean repair;
+
+    private final int rangeSize;
+
+    private final int parallelism;
+
+    private final int batchSize;
+
+    private final int maxReported;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicLong idsChecked = new AtomicLong();
+
+    private final AtomicLong idsTotal = new AtomicLong();
+
+    private final Counter usersCounter;
+
+    private final Counter discrepanciesCounter;
+
+    private final Counter repairedCounter;
+
+    public BankReconciliationService(
+        BankRepository bankRepository,
+        TreeRepository treeRepository,
+        UserRepository userRepository,
+        BankCounterService bankCounterService,
+        BankLedgerService bankLedgerService,
+        LeaderboardService leaderboardService,
+        EntityVersionService entityVersionService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Bank.Reconciliation reconciliation = applicationProperties.getBank().getReconciliation();
+        this.bankRepository = bankRepository;
+        this.treeRepository = treeRepository;
+        this.userRepository = userRepository;
+        this.bankCounterService = bankCounterService;
+        this.bankLedgerService = bankLedgerService;
+        this.leaderboardService = leaderboardService;
+        this.entityVersionService = entityVersionService;
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.readTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repair = reconciliation.isRepair();
+        this.rangeSize = reconciliation.getRangeSize();
+        this.parallelism = reconciliation.getParallelism();
+        this.batchSize = reconciliation.getBatchSize();
+        this.maxReported = reconciliation.getMaxReported();
+        this.usersCounter =
+            Counter.builder("bank.reconciliation.users").description("Users checked by bank reconciliations").register(meterRegistry);
+        this.discrepanciesCounter =
+            Counter
+                .builder("bank.reconciliation.discrepancies")
+                .description("Banks whose trees differ from the trees of their user")
+                .register(meterRegistry);
+        this.repairedCounter =
+            Counter.builder("bank.reconciliation.repaired").description("Banks repaired by reconciliations").register(meterRegistry);
+        Gauge
+            .builder("bank.reconciliation.progress", this, BankReconciliationService::getProgress)
+            .description("Share of the user ids checked by the current or last reconciliation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reconciles all banks, repairing them if {@code application.bank.reconciliation.repair} is enabled.
+     * <p>
+     * This is scheduled with the {@code application.bank.reconciliation.cron} expression, disabled by default.
+     *
+     * @return the outcome, or empty if a reconciliation is already running.
+     */
+    @Scheduled(cron = "${application.bank.reconciliation.cron:-}")
+    public Optional<BankReconciliationDTO> reconcile() {
+        return reconcile(repair);
+    }
+
+    /**
+     * Reconciles all banks.
+     *
+     * @param repair whether to repair the discrepancies, or only report them.
+     * @return the outcome, or empty if a reconciliation is already running.
+     */
+    public Optional<BankReconciliationDTO> reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Bank reconciliation already running");
+            return Optional.empty();
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Optional<Long> minId = userRepository.findMinId();
+            Optional<Long> maxId = userRepository.findMaxId();
+            idsChecked.set(0);
+            if (minId.isEmpty() || maxId.isEmpty()) {
+                idsTotal.set(0);
+                return Optional.of(new BankReconciliationDTO());
+            }
+            idsTotal.set(maxId.get() - minId.get() + 1);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            BankReconciliationDTO result;
+            try {
+                result = pool.invoke(new RangeTask(minId.get(), maxId.get(), repair));
+            } finally {
+                pool.shutdown();
+            }
+            result.setDurationMs(System.currentTimeMillis() - start);
+            if (result.getRepaired() > 0) {
+                entityVersionService.changedForAll(Bank.class);
+            }
+            log.info(
+                "Reconciled the banks of {} users in {} ranges and {} ms: {} discrepancies, {} repaired",
+                result.getUsers(),
+                result.getRanges(),
+                result.getDurationMs(),
+                result.getDiscrepancies(),
+                result.getRepaired()
+            );
+            return Optional.of(result);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public double getProgress() {
+        long total = idsTotal.get();
+        return total > 0 ? (double) idsChecked.get() / total : 1;
+    }
+
+    /**
+     * Checks the banks of a range of user ids, and repairs them if asked to.
+     *
+     * @param fromId the first user id of the range.
+     * @param toId the last user id of the range.
+     * @param repair whether to repair the discrepancies.
+     * @return the outcome for the range.
+     */
+    private BankReconciliationDTO check(long fromId, long toId, boolean repair) {
+        List<BankDiscrepancyDTO> discrepancies = new ArrayList<>();
+        Integer users = readTransactionTemplate.execute(status -> {
+            LongLongHashMap treesByUser = new LongLongHashMap();
+            for (TreeRepository.UserTreeCount count : treeRepository.countByAssignedToIdBetween(fromId, toId)) {
+                treesByUser.put(count.getUserId(), count.getTotal());
+            }
+            List<BankRepository.BankTreesowned> banks = bankRepository.findTreesownedByAssignedToIdBetween(fromId, toId);
+            for (BankRepository.BankTreesowned bank : banks) {
+                long trees = treesByUser.remove(bank.getUserId());
+                long treesowned = treesowned(bank.getTreesowned()) + bankCounterService.getPending(bank.getId());
+                if (treesowned != trees) {
+                    discrepancies.add(new BankDiscrepancyDTO(bank.getUserId(), bank.getId(), treesowned, trees));
+                }
+            }
+            for (LongLongCursor cursor : treesByUser) {
+                discrepancies.add(new BankDiscrepancyDTO(cursor.key, null, 0, cursor.value));
+            }
+            return banks.size() + treesByUser.size();
+        });
+        discrepancies.forEach(discrepancy -> log.debug("Bank discrepancy: {}", discrepancy));
+
+        BankReconciliationDTO result = new BankReconciliationDTO();
+        result.setRanges(1);
+        result.setUsers(users != null ? users : 0);
+        result.setDiscrepancies(discrepancies.size());
+        result.setReported(new ArrayList<>(discrepancies.subList(0, Math.min(discrepancies.size(), maxReported))));
+        if (repair) {
+            List<BankDiscrepancyDTO> repairable = discrepancies
+                .stream()
+                .filter(discrepancy -> discrepancy.getBankId() != null)
+                .collect(Collectors.toList());
+            for (int from = 0; from < repairable.size(); from += batchSize) {
+                result.setRepaired(result.getRepaired() + repair(repairable.subList(from, Math.min(from + batchSize, repairable.size()))));
+            }
+        }
+        usersCounter.increment(result.getUsers());
+        discrepanciesCounter.increment(result.getDiscrepancies());
+        repairedCounter.increment(result.getRepaired());
+        idsChecked.addAndGet(toId - fromId + 1);
+        return result;
+    }
+
+    private int repair(List<BankDiscrepancyDTO> discrepancies) {
+        Integer repaired = transactionTemplate.execute(status -> {
+            Map<Long, Bank> banks = bankRepository
+                .findAllByIdInForUpdate(discrepancies.stream().map(BankDiscrepancyDTO::getBankId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Bank::getId, Function.identity()));
+            Map<Long, Long> balances = bankLedgerService.getBalances(
+                discrepancies.stream().map(BankDiscrepancyDTO::getUserId).collect(Collectors.toList())
+            );
+            int count = 0;
+            for (BankDiscrepancyDTO discrepancy : discrepancies) {
+                Bank bank = banks.get(discrepancy.getBankId());
+                // Skip the banks that changed owner or received credits since they were checked.
+                if (
+                    bank == null ||
+                    bank.getAssignedTo() == null ||
+                    !discrepancy.getUserId().equals(bank.getAssignedTo().getId()) ||
+                    bankCounterService.getPending(bank.getId()) != 0
+                ) {
+                    continue;
+                }
+                int treesowned = treesowned(bank.getTreesowned());
+                int balance = Math.toIntExact(balances.getOrDefault(discrepancy.getUserId(), 0L));
+                if (treesowned == balance) {
+                    continue;
+                }
+                // Dirty banks are flushed with batched updates when the transaction commits.
+                bank.setTreesowned(balance);
+                leaderboardService.adjustBank(bank.getId(), (long) balance - treesowned);
+                count++;
+            }
+            return count;
+        });
+        return repaired != null ? repaired : 0;
+    }
+
+    private static int treesowned(Integer treesowned) {
+        return treesowned != null ? treesowned : 0;
+    }
+
+    private static BankReconciliationDTO merge(BankReconciliationDTO left, BankReconciliationDTO right, int maxReported) {
+        left.setRanges(left.getRanges() + right.getRanges());
+        left.setUsers(left.getUsers() + right.getUsers());
+        left.setDiscrepancies(left.getDiscrepancies() + right.getDiscrepancies());
+        left.setRepaired(left.getRepaired() + right.getRepaired());
+        List<BankDiscrepancyDTO> reported = left.getReported();
+        for (BankDiscrepancyDTO discrepancy : right.getReported()) {
+            if (reported.size() >= maxReported) {
+                break;
+            }
+            reported.add(discrepancy);
+        }
+        return left;
+    }
+
+    /**
+     * Checks a range of user ids, split in halves until they are at most {@code range-size} ids wide.
+     */
+    private final class RangeTask extends RecursiveTask<BankReconciliationDTO> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long fromId;
+
+        private final long toId;
+
+        private final boolean repair;
+
+        private RangeTask(long fromId, long toId, boolean repair) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.repair = repair;
+        }
+
+        @Override
+        protected BankReconciliationDTO compute() {
+            if (toId - fromId < rangeSize) {
+                return check(fromId, toId, repair);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            RangeTask left = new RangeTask(fromId, middle, repair);
+            left.fork();
+            BankReconciliationDTO right = new RangeTask(middle + 1, toId, repair).compute();
+            return merge(left.join(), right, maxReported);
+        }
+    }
+}
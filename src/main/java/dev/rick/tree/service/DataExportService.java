@@ -0,0 +1,164 @@
+package dev.rick.tree.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.TreeRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting whole tables as NDJSON or CSV.
+ * <p>
+ * Rows are streamed from the database and written one by one, and the persistence context is cleared every
+ * {@code application.export.chunk-size} rows, so the heap used by an export does not depend on the size of the table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class DataExportService {
+
+    private static final String TREE_CSV_HEADER = "id,trees,assigned_to_id,assigned_to_login";
+
+    private static final String TIMER_CSV_HEADER = "id,duration,expiration_time,status,assigned_to_id,assigned_to_login";
+
+    private final Logger log = LoggerFactory.getLogger(DataExportService.class);
+
+    private final TreeRepository treeRepository;
+
+    private final TimerRepository timerRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final int chunkSize;
+
+    public DataExportService(
+        TreeRepository treeRepository,
+        TimerRepository timerRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.treeRepository = treeRepository;
+        this.timerRepository = timerRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.chunkSize = applicationProperties.getExport().getChunkSize();
+    }
+
+    /**
+     * Writes all the trees, in id order.
+     *
+     * @param format the format.
+     * @param out the stream to write to, left open.
+     * @return the number of exported trees.
+     * @throws IOException if the stream could not be written.
+     */
+    public long exportTrees(DataFormat format, OutputStream out) throws IOException {
+        try (Stream<Tree> trees = treeRepository.streamAllWithToOneRelationships()) {
+            long count = export(
+                trees,
+                format,
+                out,
+                TREE_CSV_HEADER,
+                tree -> csv(tree.getId(), tree.getTrees(), userId(tree.getAssignedTo()), login(tree.getAssignedTo()))
+            );
+            log.debug("Exported {} Trees as {}", count, format);
+            return count;
+        }
+    }
+
+    /**
+     * Writes all the timers, in id order.
+     *
+     * @param format the format.
+     * @param out the stream to write to, left open.
+     * @return the number of exported timers.
+     * @throws IOException if the stream could not be written.
+     */
+    public long exportTimers(DataFormat format, OutputStream out) throws IOException {
+        try (Stream<Timer> timers = timerRepository.streamAllWithToOneRelationships()) {
+            long count = export(
+                timers,
+                format,
+                out,
+                TIMER_CSV_HEADER,
+                timer ->
+                    csv(
+                        timer.getId(),
+                        timer.getDuration(),
+                        timer.getExpirationTime() != null ? timer.getExpirationTime().toInstant() : null,
+                        timer.getStatus(),
+                        userId(timer.getAssignedTo()),
+                        login(timer.getAssignedTo())
+                    )
+            );
+            log.debug("Exported {} Timers as {}", count, format);
+            return count;
+        }
+    }
+
+    private <T> long export(Stream<T> rows, DataFormat format, OutputStream out, String csvHeader, Function<T, String> csvRow)
+        throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == DataFormat.CSV) {
+            writer.write(csvHeader);
+            writer.write('\n');
+        }
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.write(format == DataFormat.CSV ? csvRow.apply(row) : objectMapper.writeValueAsString(row));
+            writer.write('\n');
+            if (++count % chunkSize == 0) {
+                // The rows written so far are detached, and sent to the client rather than buffered.
+                entityManager.clear();
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static Long userId(User user) {
+        return user != null ? user.getId() : null;
+    }
+
+    private static String login(User user) {
+        return user != null ? user.getLogin() : null;
+    }
+
+    private static String csv(Object... values) {
+        return Arrays.stream(values).map(DataExportService::csvValue).collect(Collectors.joining(","));
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,36 @@
+package dev.rick.tree.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.http.MediaType;
+
+/**
+ * The formats of the exports and imports of whole tables.
+ */
+public enum DataFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final MediaType mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Optional<DataFormat> of(String name) {
+        return Arrays.stream(values()).filter(format -> format.name().equalsIgnoreCase(name)).findFirst();
+    }
+
+    public static Optional<DataFormat> of(MediaType mediaType) {
+        return Arrays.stream(values()).filter(format -> format.mediaType.includes(mediaType)).findFirst();
+    }
+}
@@ -0,0 +1,148 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service keeping in memory a version of the {@link Tree}s, {@link Timer}s and {@link Bank}s, overall and per user, so
+ * that reads can be answered with {@code 304 (Not Modified)} without querying the database.
+ * <p>
+ * Versions only increase, and are bumped once the transaction of a change commits. Per-user versions are kept in
+ * {@value #USER_SLOTS} slots indexed by user id: users sharing a slot see their versions bumped together, which costs
+ * a needless refresh. Changes whose users are not known bump the versions of all users. Tags start with the startup
+ * time of the application, so tags issued before a restart are never matched.
+ * <p>
+ * Versions are per node and only bumped by the changes made on the same node, so they are only correct when a single
+ * node serves the API. They are used only if {@code application.entity-version.enabled} is set, which is off by
+ * default; otherwise {@link #isEnabled()} is {@code false}, changes are not tracked and reads are always answered.
+ */
+@Service
+public class EntityVersionService {
+
+    static final int USER_SLOTS = 1 << 16;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final boolean enabled;
+
+    private final Map<Class<?>, Versions> versions = Map.of(
+        Tree.class,
+        new Versions(),
+        Timer.class,
+        new Versions(),
+        Bank.class,
+        new Versions()
+    );
+
+    public EntityVersionService(ApplicationProperties applicationProperties) {
+        this.enabled = applicationProperties.getEntityVersion().isEnabled();
+    }
+
+    /**
+     * @return whether reads can be answered from the tags, that is when a single node serves the API.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Bumps the versions of an entity type, overall and for the given users, once the current transaction commits.
+     *
+     * @param type the entity type.
+     * @param users the users whose entities changed, {@code null} users are ignored.
+     */
+    public void changed(Class<?> type, User... users) {
+        List<Long> userIds = new ArrayList<>(users.length);
+        for (User user : users) {
+            if (user != null && user.getId() != null) {
+                userIds.add(user.getId());
+            }
+        }
+        changed(type, userIds);
+    }
+
+    /**
+     * Bumps the versions of an entity type, overall and for the given users, once the current transaction commits.
+     *
+     * @param type the entity type.
+     * @param userIds the ids of the users whose entities changed.
+     */
+    public void changed(Class<?> type, Collection<Long> userIds) {
+        Versions typeVersions = versions(type);
+        if (!enabled) {
+            return;
+        }
+        int[] slots = userIds.stream().mapToInt(EntityVersionService::slot).toArray();
+        TransactionCallbacks.afterCommit(() -> {
+            for (int slot : slots) {
+                typeVersions.byUser.incrementAndGet(slot);
+            }
+            typeVersions.all.incrementAndGet();
+        });
+    }
+
+    /**
+     * Bumps the versions of an entity type, overall and for all users, once the current transaction commits.
+     *
+     * @param type the entity type.
+     */
+    public void changedForAll(Class<?> type) {
+        Versions typeVersions = versions(type);
+        if (!enabled) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            typeVersions.allUsers.incrementAndGet();
+            typeVersions.all.incrementAndGet();
+        });
+    }
+
+    /**
+     * @param type the entity type.
+     * @return the tag of the current version of all the entities of a type.
+     */
+    public String getTag(Class<?> type) {
+        return epoch + "-" + versions(type).all.get();
+    }
+
+    /**
+     * @param type the entity type.
+     * @param userId the id of the user.
+     * @return the tag of the current version of the entities of a type owned by a user.
+     */
+    public String getTag(Class<?> type, Long userId) {
+        Versions typeVersions = versions(type);
+        return epoch + "-" + typeVersions.allUsers.get() + "-" + typeVersions.byUser.get(slot(userId));
+    }
+
+    private Versions versions(Class<?> type) {
+        Versions typeVersions = versions.get(type);
+        if (typeVersions == null) {
+            throw new IllegalArgumentException("Unversioned entity type " + type.getSimpleName());
+        }
+        return typeVersions;
+    }
+
+    private static int slot(long userId) {
+        return Long.hashCode(userId) & (USER_SLOTS - 1);
+    }
+
+    private static final class Versions {
+
+        private final AtomicLong all = new AtomicLong();
+
+        private final AtomicLong allUsers = new AtomicLong();
+
+        private final AtomicLongArray byUser = new AtomicLongArray(USER_SLOTS);
+    }
+}
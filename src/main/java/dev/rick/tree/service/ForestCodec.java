@@ -0,0 +1,152 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.MediaType;
+
+/**
+ * Compact binary encoding of a list of {@link Tree}s, for clients syncing whole forests.
+ * <p>
+ * Only the id and the type of the trees are encoded, in this layout:
+ * <ol>
+ *     <li>the version of the encoding, one byte, {@value #VERSION};</li>
+ *     <li>the number of trees, as an unsigned varint;</li>
+ *     <li>the id of each tree, in ascending order, as the unsigned varint of its difference with the previous id, the
+ *     first id being encoded as is;</li>
+ *     <li>the {@link TreeType} ordinal of each tree in four bits, two trees per byte with the first in the high bits,
+ *     {@value #NO_TYPE} when the tree has no type.</li>
+ * </ol>
+ * Varints use seven bits per byte, least significant group first, with the high bit set on all bytes but the last.
+ */
+public final class ForestCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.treefocus.forest";
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    public static final int VERSION = 1;
+
+    static final int NO_TYPE = 0xF;
+
+    private static final TreeType[] TYPES = TreeType.values();
+
+    private ForestCodec() {}
+
+    /**
+     * Encodes trees.
+     *
+     * @param trees the trees, in ascending id order.
+     * @return the encoded trees.
+     * @throws IllegalArgumentException if the ids of the trees are not positive and ascending.
+     */
+    public static byte[] encode(List<Tree> trees) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + trees.size() * 2);
+        out.write(VERSION);
+        writeVarint(out, trees.size());
+        long previous = 0;
+        for (Tree tree : trees) {
+            if (tree.getId() == null || tree.getId() <= previous) {
+                throw new IllegalArgumentException("Trees must have positive ascending ids");
+            }
+            writeVarint(out, tree.getId() - previous);
+            previous = tree.getId();
+        }
+        for (int i = 0; i < trees.size(); i += 2) {
+            int high = nibble(trees.get(i));
+            int low = i + 1 < trees.size() ? nibble(trees.get(i + 1)) : 0;
+            out.write(high << 4 | low);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes trees.
+     *
+     * @param bytes the encoded trees.
+     * @return the trees, with their id and type only.
+     * @throws IllegalArgumentException if the bytes are not a valid encoding.
+     */
+    public static List<Tree> decode(byte[] bytes) {
+        Reader in = new Reader(bytes);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported forest encoding version " + version);
+        }
+        int count = Math.toIntExact(in.readVarint());
+        if (count > bytes.length) {
+            throw new IllegalArgumentException("Invalid tree count " + count);
+        }
+        List<Tree> trees = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += in.readVarint();
+            trees.add(new Tree().id(id));
+        }
+        for (int i = 0; i < count; i += 2) {
+            int types = in.readByte();
+            trees.get(i).setTrees(type(types >>> 4));
+            if (i + 1 < count) {
+                trees.get(i + 1).setTrees(type(types & 0xF));
+            }
+        }
+        if (in.position < bytes.length) {
+            throw new IllegalArgumentException("Trailing bytes after the forest");
+        }
+        return trees;
+    }
+
+    private static int nibble(Tree tree) {
+        return tree.getTrees() != null ? tree.getTrees().ordinal() : NO_TYPE;
+    }
+
+    private static TreeType type(int nibble) {
+        if (nibble == NO_TYPE) {
+            return null;
+        }
+        if (nibble >= TYPES.length) {
+            throw new IllegalArgumentException("Invalid tree type " + nibble);
+        }
+        return TYPES[nibble];
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated forest");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+    }
+}
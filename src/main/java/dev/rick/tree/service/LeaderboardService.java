@@ -0,0 +1,334 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.LeaderboardEntryDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service ranking users by the number of trees owned by their {@link Bank}.
+ * <p>
+ * The ranking is kept in memory in a {@link RankingTree}, so the top of the leaderboard and the rank of a user are
+ * served in {@code O(log n)} without querying the database. It is rebuilt from the {@code bank} table when the
+ * application starts, and with the {@code application.leaderboard.resync-cron} expression, in pages of
+ * {@code application.leaderboard.rebuild-page-size} banks, and updated incrementally with every bank change once its
+ * transaction commits. Banks without an owner are not ranked.
+ * <p>
+ * The changes committed during a rebuild are applied to the served leaderboard and, for the banks already read, to the
+ * rebuilt one, which replaces the served one with its last page, so they are not lost. A change committed while the
+ * page of its bank is being read may still be missed by the rebuild, and is corrected by the next one.
+ */
+@Service
+public class LeaderboardService {
+
+    private final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final BankRepository bankRepository;
+
+    private final UserRepository userRepository;
+
+    private final int maxTop;
+
+    private final int rebuildPageSize;
+
+    private Board board = new Board();
+
+    /**
+     * The leaderboard being rebuilt, or {@code null}.
+     */
+    private Board rebuilding;
+
+    /**
+     * The id of the last bank read by the rebuild.
+     */
+    private long rebuiltUpTo;
+
+    public LeaderboardService(
+        BankRepository bankRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.bankRepository = bankRepository;
+        this.userRepository = userRepository;
+        this.maxTop = applicationProperties.getLeaderboard().getMaxTop();
+        this.rebuildPageSize = applicationProperties.getLeaderboard().getRebuildPageSize();
+        Gauge
+            .builder("leaderboard.size", this, LeaderboardService::size)
+            .description("Users ranked on the leaderboard")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ranks the owner of a bank with the trees of the bank, once the current transaction commits.
+     * <p>
+     * If the bank changed owner, its previous owner is no longer ranked.
+     *
+     * @param bank the bank, with the trees credited but not yet flushed.
+     */
+    public void set(Bank bank) {
+        if (bank.getId() == null) {
+            return;
+        }
+        long bankId = bank.getId();
+        User owner = bank.getAssignedTo();
+        Long userId = owner != null ? owner.getId() : null;
+        String login = userId != null ? login(owner) : null;
+        long treesowned = bank.getTreesowned() != null ? bank.getTreesowned() : 0;
+        TransactionCallbacks.afterCommit(() -> update(b -> bankId <= rebuiltUpTo, b -> b.set(bankId, userId, login, treesowned)));
+    }
+
+    /**
+     * Adds trees to the rank of a user, once the current transaction commits.
+     *
+     * @param user the user.
+     * @param delta the number of trees to add, negative to remove trees.
+     */
+    public void adjust(User user, long delta) {
+        long userId = user.getId();
+        String login = login(user);
+        TransactionCallbacks.afterCommit(() -> update(b -> b.ranking.contains(userId), b -> b.add(userId, login, delta)));
+    }
+
+    /**
+     * Adds trees to the rank of the owner of a bank, once the current transaction commits.
+     *
+     * @param bankId the id of the bank.
+     * @param delta the number of trees to add, negative to remove trees.
+     */
+    public void adjustBank(Long bankId, long delta) {
+        TransactionCallbacks.afterCommit(() -> update(b -> b.userIdByBankId.containsKey(bankId), b -> b.addBank(bankId, delta)));
+    }
+
+    /**
+     * Stops ranking the owner of a bank, once the current transaction commits.
+     *
+     * @param bankId the id of the bank.
+     */
+    public void removeBank(Long bankId) {
+        TransactionCallbacks.afterCommit(() -> update(b -> true, b -> b.removeBank(bankId)));
+    }
+
+    /**
+     * Gets the top of the leaderboard.
+     *
+     * @param limit the maximum number of entries, capped at {@code application.leaderboard.max-top}.
+     * @return the entries, best first.
+     */
+    public List<LeaderboardEntryDTO> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            int size = board.ranking.size();
+            int count = Math.max(0, Math.min(Math.min(limit, maxTop), size));
+            List<LeaderboardEntryDTO> entries = new ArrayList<>(count);
+            board.ranking.forEachTop(count, (userId, treesowned) -> entries.add(board.entry(userId, treesowned, size)));
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the position of a user on the leaderboard.
+     *
+     * @param login the login of the user.
+     * @return the entry of the user, or empty if the user has no bank.
+     */
+    public Optional<LeaderboardEntryDTO> getEntry(String login) {
+        lock.readLock().lock();
+        try {
+            Long userId = board.userIdByLogin.get(login);
+            Long treesowned = userId != null ? board.ranking.score(userId) : null;
+            return treesowned != null ? Optional.of(board.entry(userId, treesowned, board.ranking.size())) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return board.ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the leaderboard from the {@code bank} table, replacing it once all the banks are read.
+     * <p>
+     * This is done when the application is ready, before it serves requests, and is scheduled with the
+     * {@code application.leaderboard.resync-cron} expression, disabled by default, to correct any drift.
+     *
+     * @return the number of ranked users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${application.leaderboard.resync-cron:-}")
+    public synchronized int rebuild() {
+        Board rebuilt = new Board();
+        lock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+            rebuiltUpTo = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            long after = 0;
+            boolean last;
+            do {
+                List<Bank> banks = bankRepository.findAllWithEagerRelationshipsAfter(after, PageRequest.of(0, rebuildPageSize));
+                last = banks.size() < rebuildPageSize;
+                if (!banks.isEmpty()) {
+                    after = banks.get(banks.size() - 1).getId();
+                }
+                lock.writeLock().lock();
+                try {
+                    for (Bank bank : banks) {
+                        User owner = bank.getAssignedTo();
+                        if (owner != null) {
+                            long treesowned = bank.getTreesowned() != null ? bank.getTreesowned() : 0;
+                            rebuilt.set(bank.getId(), owner.getId(), owner.getLogin(), treesowned);
+                        }
+                    }
+                    if (last) {
+                        board = rebuilt;
+                    } else {
+                        rebuiltUpTo = after;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } while (!last);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Rebuilt leaderboard of {} users", rebuilt.ranking.size());
+        return rebuilt.ranking.size();
+    }
+
+    /**
+     * Applies a committed change to the leaderboard, and to the one being rebuilt if it already read the bank changed.
+     *
+     * @param read whether the rebuild already read the bank changed, otherwise it reads the change with the bank.
+     * @param change the change.
+     */
+    private void update(Predicate<Board> read, Consumer<Board> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(board);
+            if (rebuilding != null && read.test(rebuilding)) {
+                change.accept(rebuilding);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private String login(User user) {
+        if (user.getLogin() != null) {
+            return user.getLogin();
+        }
+        return userRepository.findById(user.getId()).map(User::getLogin).orElse(null);
+    }
+
+    /**
+     * Ranking of the users with the banks and logins it was built from, guarded by the lock of the service.
+     */
+    private static class Board {
+
+        private final RankingTree ranking = new RankingTree();
+
+        private final LongLongHashMap userIdByBankId = new LongLongHashMap();
+
+        private final LongObjectHashMap<String> loginByUserId = new LongObjectHashMap<>();
+
+        private final Map<String, Long> userIdByLogin = new HashMap<>();
+
+        void set(long bankId, Long userId, String login, long treesowned) {
+            if (userIdByBankId.containsKey(bankId)) {
+                long previousUserId = userIdByBankId.get(bankId);
+                if (userId == null || previousUserId != userId) {
+                    userIdByBankId.remove(bankId);
+                    unrank(previousUserId);
+                }
+            }
+            if (userId != null) {
+                userIdByBankId.put(bankId, userId);
+                rank(userId, login);
+                ranking.put(userId, treesowned);
+            }
+        }
+
+        void add(long userId, String login, long delta) {
+            rank(userId, login);
+            ranking.add(userId, delta);
+        }
+
+        void addBank(long bankId, long delta) {
+            if (userIdByBankId.containsKey(bankId)) {
+                ranking.add(userIdByBankId.get(bankId), delta);
+            }
+        }
+
+        void removeBank(long bankId) {
+            if (userIdByBankId.containsKey(bankId)) {
+                unrank(userIdByBankId.remove(bankId));
+            }
+        }
+
+        private void rank(long userId, String login) {
+            if (login == null) {
+                return;
+            }
+            String previousLogin = loginByUserId.put(userId, login);
+            if (previousLogin != null && !previousLogin.equals(login)) {
+                userIdByLogin.remove(previousLogin);
+            }
+            userIdByLogin.put(login, userId);
+        }
+
+        private void unrank(long userId) {
+            ranking.remove(userId);
+            String login = loginByUserId.remove(userId);
+            if (login != null) {
+                userIdByLogin.remove(login);
+            }
+        }
+
+        private LeaderboardEntryDTO entry(long userId, long treesowned, int size) {
+            int above = ranking.countAbove(treesowned);
+            double percentile = Math.round((size - above) * 10_000.0 / size) / 100.0;
+            return new LeaderboardEntryDTO(above + 1, userId, loginByUserId.get(userId), treesowned, percentile);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistics tree of scores keyed by entity id.
+ * <p>
+ * Entries are ordered by descending score, then by ascending id, in a treap whose nodes know the size of their subtree,
+ * so updating a score and computing the rank of an entry are {@code O(log n)}, and listing the first {@code k} entries is
+ * {@code O(k + log n)}. Entries with the same score share the same rank.
+ * <p>
+ * This class is not thread-safe, callers must synchronize access.
+ */
+public final class RankingTree {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    private final LongObjectHashMap<Node> entries = new LongObjectHashMap<>();
+
+    private Node root;
+
+    /**
+     * Sets the score of {@code id}, replacing any previous score.
+     *
+     * @param id the id of the entry.
+     * @param score the score.
+     */
+    public void put(long id, long score) {
+        Node previous = entries.get(id);
+        if (previous != null) {
+            if (previous.score == score) {
+                return;
+            }
+            root = delete(root, previous.score, id);
+        }
+        Node node = new Node(id, score, random.nextInt());
+        entries.put(id, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Adds {@code delta} to the score of {@code id}, starting from {@code 0} if it has none.
+     *
+     * @param id the id of the entry.
+     * @param delta the delta to add.
+     * @return the new score.
+     */
+    public long add(long id, long delta) {
+        Node node = entries.get(id);
+        long score = (node != null ? node.score : 0) + delta;
+        put(id, score);
+        return score;
+    }
+
+    /**
+     * Removes {@code id} from the tree.
+     *
+     * @param id the id of the entry.
+     * @return {@code true} if the entry was present.
+     */
+    public boolean remove(long id) {
+        Node node = entries.remove(id);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node.score, id);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    /**
+     * @param id the id of the entry.
+     * @return the score of the entry, or {@code null} if it is not present.
+     */
+    public Long score(long id) {
+        Node node = entries.get(id);
+        return node != null ? node.score : null;
+    }
+
+    /**
+     * @param id the id of the entry.
+     * @return the rank of the entry, starting at {@code 1}, or {@code 0} if it is not present.
+     */
+    public int rank(long id) {
+        Node node = entries.get(id);
+        return node != null ? countAbove(node.score) + 1 : 0;
+    }
+
+    /**
+     * @param score the score.
+     * @return the number of entries with a score strictly greater than {@code score}.
+     */
+    public int countAbove(long score) {
+        return countBefore(score, Long.MIN_VALUE);
+    }
+
+    /**
+     * @param score the score.
+     * @return the number of entries with a score strictly less than {@code score}.
+     */
+    public int countBelow(long score) {
+        Node last = entries.get(Long.MAX_VALUE);
+        return size() - countBefore(score, Long.MAX_VALUE) - (last != null && last.score == score ? 1 : 0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Visits the first {@code limit} entries, best first.
+     *
+     * @param limit the maximum number of entries to visit.
+     * @param visitor the visitor.
+     */
+    public void forEachTop(int limit, EntryVisitor visitor) {
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        int visited = 0;
+        while (visited < limit && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            visitor.visit(node.id, node.score);
+            visited++;
+            node = node.right;
+        }
+    }
+
+    private int countBefore(long score, long id) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(score, id, node) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] split = split(node, inserted.score, inserted.id);
+            inserted.left = split[0];
+            inserted.right = split[1];
+            return update(inserted);
+        }
+        if (compare(inserted.score, inserted.id, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long score, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, score, id);
+        } else {
+            node.right = delete(node.right, score, id);
+        }
+        return update(node);
+    }
+
+    /**
+     * Splits a subtree into the entries ordered before the key and the others.
+     */
+    private static Node[] split(Node node, long score, long id) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(score, id, node) > 0) {
+            Node[] split = split(node.right, score, id);
+            node.right = split[0];
+            split[0] = update(node);
+            return split;
+        }
+        Node[] split = split(node.left, score, id);
+        node.left = split[1];
+        split[1] = update(node);
+        return split;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static int compare(long score, long id, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Long.compare(id, node.id);
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    /**
+     * Visitor of the entries of a {@link RankingTree}.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(long id, long score);
+    }
+
+    private static final class Node {
+
+        private final long id;
+
+        private final long score;
+
+        private final int priority;
+
+        private int size = 1;
+
+        private Node left;
+
+        private Node right;
+
+        private Node(long id, long score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+}
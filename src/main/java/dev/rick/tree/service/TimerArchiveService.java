@@ -0,0 +1,108 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.TimerHistory;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.repository.TimerHistoryRepository;
+import dev.rick.tree.repository.TimerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service moving finished {@link Timer}s to the {@link TimerHistory}, so the {@code timer} table and its cache region
+ * only hold recent timers.
+ * <p>
+ * Timers that are no longer running and expired more than {@code application.timer.archive.max-age} ago are moved with
+ * an {@code INSERT ... SELECT} and a {@code DELETE} of at most {@code application.timer.archive.chunk-size} ids, each
+ * chunk in its own transaction.
+ */
+@Service
+public class TimerArchiveService {
+
+    private static final Set<TimerStatus> FINISHED = EnumSet.of(TimerStatus.Expired, TimerStatus.Completed);
+
+    private final Logger log = LoggerFactory.getLogger(TimerArchiveService.class);
+
+    private final TimerRepository timerRepository;
+
+    private final TimerHistoryRepository timerHistoryRepository;
+
+    private final EntityVersionService entityVersionService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration maxAge;
+
+    private final int chunkSize;
+
+    private final Counter archivedCounter;
+
+    public TimerArchiveService(
+        TimerRepository timerRepository,
+        TimerHistoryRepository timerHistoryRepository,
+        EntityVersionService entityVersionService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Timer.Archive archive = applicationProperties.getTimer().getArchive();
+        this.timerRepository = timerRepository;
+        this.timerHistoryRepository = timerHistoryRepository;
+        this.entityVersionService = entityVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAge = archive.getMaxAge();
+        this.chunkSize = archive.getChunkSize();
+        this.archivedCounter =
+            Counter.builder("timer.archive.archived").description("Timers moved to the timer history").register(meterRegistry);
+    }
+
+    /**
+     * Moves the finished timers older than the maximum age to the history.
+     * <p>
+     * This is scheduled to get fired every {@code application.timer.archive.interval-ms} milliseconds.
+     *
+     * @return the number of archived timers.
+     */
+    @Scheduled(fixedDelayString = "${application.timer.archive.interval-ms:3600000}")
+    public int archiveFinishedTimers() {
+        ZonedDateTime before = ZonedDateTime.now().minus(maxAge);
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        int total = 0;
+        while (true) {
+            // Archived rows are deleted, so the first page always holds the next chunk.
+            List<Long> ids = timerRepository.findAllIdsByStatusInAndExpirationTimeBefore(FINISHED, before, chunk);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer archived = transactionTemplate.execute(status -> {
+                int inserted = timerHistoryRepository.archiveByIdIn(ids);
+                timerRepository.deleteByIdIn(ids);
+                return inserted;
+            });
+            total += archived != null ? archived : 0;
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            archivedCounter.increment(total);
+            entityVersionService.changedForAll(Timer.class);
+            log.info("Archived {} timers that expired before {}", total, before);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,91 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.service.dto.TimerCompletionDTO;
+import java.time.ZonedDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service rewarding the owner of a finished {@link Timer} with a {@link Tree}.
+ * <p>
+ * The timer is marked {@link TimerStatus#Completed}, the tree is inserted and counted by the {@link TreeSummaryService},
+ * and the {@link Bank} of the owner is credited through the {@link BankCounterService} in the same transaction. The
+ * status update only matches a timer that is not completed yet, so a retried completion never awards twice.
+ */
+@Service
+@Transactional
+public class TimerCompletionService {
+
+    private final Logger log = LoggerFactory.getLogger(TimerCompletionService.class);
+
+    private final TimerRepository timerRepository;
+
+    private final TreeRepository treeRepository;
+
+    private final BankRepository bankRepository;
+
+    private final BankCounterService bankCounterService;
+
+    private final TimerExpirationService timerExpirationService;
+
+    private final TreeSummaryService treeSummaryService;
+
+    private final EntityVersionService entityVersionService;
+
+    public TimerCompletionService(
+        TimerRepository timerRepository,
+        TreeRepository treeRepository,
+        BankRepository bankRepository,
+        BankCounterService bankCounterService,
+        TimerExpirationService timerExpirationService,
+        TreeSummaryService treeSummaryService,
+        EntityVersionService entityVersionService
+    ) {
+        this.timerRepository = timerRepository;
+        this.treeRepository = treeRepository;
+        this.bankRepository = bankRepository;
+        this.bankCounterService = bankCounterService;
+        this.timerExpirationService = timerExpirationService;
+        this.treeSummaryService = treeSummaryService;
+        this.entityVersionService = entityVersionService;
+    }
+
+    /**
+     * Completes a finished timer and awards a tree to its owner.
+     *
+     * @param timer the timer, with its owner and an expiration time that has passed.
+     * @param treeType the type of the awarded tree.
+     * @return the outcome, not awarded if the timer was already completed.
+     */
+    public TimerCompletionDTO complete(Timer timer, TreeType treeType) {
+        User owner = timer.getAssignedTo();
+        if (timerRepository.completeFinishedTimer(timer.getId(), ZonedDateTime.now()) == 0) {
+            log.debug("Timer {} is already completed", timer.getId());
+            Integer treesowned = bankRepository
+                .findIdByAssignedToId(owner.getId())
+                .flatMap(bankRepository::findById)
+                .map(bank -> bankCounterService.withPending(bank).getTreesowned())
+                .orElse(0);
+            return new TimerCompletionDTO(timer.getId(), false, null, null, treesowned);
+        }
+        Tree tree = treeRepository.save(new Tree().trees(treeType).assignedTo(owner));
+        treeSummaryService.added(tree);
+        entityVersionService.changed(Tree.class, owner);
+        entityVersionService.changed(Timer.class, owner);
+        int treesowned = bankCounterService.credit(owner, 1);
+        timerExpirationService.complete(timer);
+        log.debug("Completed timer {}, awarded tree {} to user {}", timer.getId(), tree.getId(), owner.getId());
+        return new TimerCompletionDTO(timer.getId(), true, tree.getId(), treeType, treesowned);
+    }
+}
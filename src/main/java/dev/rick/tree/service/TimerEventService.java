@@ -0,0 +1,222 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory hub fanning out {@link TimerEventDTO}s to the listeners subscribed by each user.
+ * <p>
+ * The running timer of a user is read from the {@link ActiveTimerRegistry}, so a new subscriber immediately gets the
+ * current state and subscribers receive a {@link TimerEventDTO.Type#CHECKPOINT} every
+ * {@code application.timer.events.checkpoint-ms} milliseconds.
+ * <p>
+ * Publishing only queues the event of each subscriber, listeners are called by the {@code timerEventsExecutor}, so a
+ * slow client never holds the thread committing a transition or ticking the timing wheel. A subscriber with
+ * {@code application.timer.events.subscriber-queue-capacity} events still waiting has fallen behind: it is dropped and
+ * told so, and its client reconnects.
+ */
+@Service
+public class TimerEventService {
+
+    private final Logger log = LoggerFactory.getLogger(TimerEventService.class);
+
+    private final ConcurrentMap<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+
+    private final ActiveTimerRegistry activeTimerRegistry;
+
+    private final TaskExecutor executor;
+
+    private final int queueCapacity;
+
+    private final Counter droppedCounter;
+
+    public TimerEventService(
+        ActiveTimerRegistry activeTimerRegistry,
+        @Qualifier("timerEventsExecutor") TaskExecutor executor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.executor = executor;
+        this.queueCapacity = applicationProperties.getTimer().getEvents().getSubscriberQueueCapacity();
+        Gauge
+            .builder("timer.events.subscribers", subscribers, map -> map.values().stream().mapToInt(Set::size).sum())
+            .description("Listeners subscribed to timer events")
+            .register(meterRegistry);
+        this.droppedCounter =
+            Counter
+                .builder("timer.events.dropped")
+                .description("Listeners dropped because they fell behind the timer events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes a listener to the timer events of a user, and sends it the running timer of that user if any.
+     *
+     * @param userId the id of the user.
+     * @param listener the listener, called by a single thread at a time.
+     * @param onDropped the action run when the listener is dropped because it fell behind.
+     * @return the action removing the subscription.
+     */
+    public Runnable subscribe(Long userId, Consumer<TimerEventDTO> listener, Runnable onDropped) {
+        Subscription subscription = new Subscription(userId, listener, onDropped);
+        subscribers.compute(
+            userId,
+            (id, subscriptions) -> {
+                Set<Subscription> result = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+                result.add(subscription);
+                return result;
+            }
+        );
+        activeTimerRegistry
+            .getByUserId(userId)
+            .ifPresent(running -> subscription.offer(event(TimerEventDTO.Type.CHECKPOINT, running, ZonedDateTime.now())));
+        return () -> unsubscribe(subscription);
+    }
+
+    /**
+     * Publishes a transition of a timer to the subscribers of its owner.
+     *
+     * @param type the type of the transition.
+     * @param timer the timer, transitions of timers without owner are dropped.
+     */
+    public void publish(TimerEventDTO.Type type, Timer timer) {
+        if (timer.getAssignedTo() != null) {
+            publish(timer.getAssignedTo().getId(), event(type, timer, ZonedDateTime.now()));
+        }
+    }
+
+    /**
+     * Publishes a timer event to the subscribers of a user.
+     *
+     * @param userId the id of the user.
+     * @param event the event.
+     */
+    public void publish(Long userId, TimerEventDTO event) {
+        Set<Subscription> subscriptions = subscribers.get(userId);
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> subscription.offer(event));
+        }
+    }
+
+    /**
+     * Sends the remaining time of their running timer to subscribed users.
+     * <p>
+     * This is scheduled to get fired every {@code application.timer.events.checkpoint-ms} milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${application.timer.events.checkpoint-ms:30000}")
+    public void publishCheckpoints() {
+        ZonedDateTime now = ZonedDateTime.now();
+        subscribers.forEach((userId, subscriptions) ->
+            activeTimerRegistry
+                .getByUserId(userId)
+                .ifPresent(running -> {
+                    TimerEventDTO event = event(TimerEventDTO.Type.CHECKPOINT, running, now);
+                    subscriptions.forEach(subscription -> subscription.offer(event));
+                })
+        );
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscribers.computeIfPresent(
+            subscription.userId,
+            (id, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            }
+        );
+    }
+
+    /**
+     * Listener with its queue of events, drained by one task of the executor at a time.
+     */
+    private final class Subscription {
+
+        private final Long userId;
+
+        private final Consumer<TimerEventDTO> listener;
+
+        private final Runnable onDropped;
+
+        private final BlockingQueue<TimerEventDTO> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscription(Long userId, Consumer<TimerEventDTO> listener, Runnable onDropped) {
+            this.userId = userId;
+            this.listener = listener;
+            this.onDropped = onDropped;
+        }
+
+        void offer(TimerEventDTO event) {
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+                log.debug("Dropping timer event listener of user {}: {} events are waiting", userId, queueCapacity);
+                unsubscribe(this);
+                queue.clear();
+                // The listener may be blocked on its client, so it is told on the executor.
+                execute(onDropped);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                TimerEventDTO event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        listener.accept(event);
+                    } catch (RuntimeException e) {
+                        log.debug("Dropping timer event listener of user {}: {}", userId, e.getMessage());
+                        unsubscribe(this);
+                        queue.clear();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared is drained here.
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void execute(Runnable task) {
+            try {
+                executor.execute(task);
+            } catch (TaskRejectedException e) {
+                log.debug("Dropping timer event listener of user {}: {}", userId, e.getMessage());
+                unsubscribe(this);
+                queue.clear();
+            }
+        }
+    }
+
+    private static TimerEventDTO event(TimerEventDTO.Type type, Timer timer, ZonedDateTime now) {
+        long remaining = 0;
+        if (type == TimerEventDTO.Type.STARTED || type == TimerEventDTO.Type.CHECKPOINT) {
+            remaining = Math.max(0, Duration.between(now, timer.getExpirationTime()).toMillis());
+        }
+        return new TimerEventDTO(type, timer.getId(), timer.getExpirationTime(), remaining);
+    }
+}
@@ -0,0 +1,363 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongArrayList;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service expiring running {@link Timer}s on the server, so clients no longer have to PATCH them to
+ * {@link TimerStatus#Expired}.
+ * <p>
+ * Running timers are kept in a {@link TimingWheel}; every tick the due ids are flipped to expired with bulk updates of
+ * at most {@code application.timer.expiration.batch-size} ids. Running timers are also registered in the
+ * {@link ActiveTimerRegistry}, and every transition is published to the owner of the timer through the
+ * {@link TimerEventService}. Starts and ends are appended to the {@link TimerJournal}, which is replayed on restart.
+ * <p>
+ * The wheel ticks on a dedicated thread, so slow scheduled jobs never delay expirations.
+ */
+@Service
+public class TimerExpirationService {
+
+    private final Logger log = LoggerFactory.getLogger(TimerExpirationService.class);
+
+    private final TimerRepository timerRepository;
+
+    private final UserRepository userRepository;
+
+    private final ActiveTimerRegistry activeTimerRegistry;
+
+    private final TimerEventService timerEventService;
+
+    private final TimerJournal timerJournal;
+
+    private final EntityVersionService entityVersionService;
+
+    private final TimingWheel wheel;
+
+    private final int batchSize;
+
+    private final long tickMs;
+
+    private final ThreadPoolTaskScheduler tickScheduler;
+
+    private final Counter expiredCounter;
+
+    public TimerExpirationService(
+        TimerRepository timerRepository,
+        UserRepository userRepository,
+        ActiveTimerRegistry activeTimerRegistry,
+        TimerEventService timerEventService,
+        TimerJournal timerJournal,
+        EntityVersionService entityVersionService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Timer.Expiration expiration = applicationProperties.getTimer().getExpiration();
+        this.timerRepository = timerRepository;
+        this.userRepository = userRepository;
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.timerEventService = timerEventService;
+        this.timerJournal = timerJournal;
+        this.entityVersionService = entityVersionService;
+        this.wheel = new TimingWheel(expiration.getTickMs(), expiration.getWheelSize(), System.currentTimeMillis());
+        this.batchSize = expiration.getBatchSize();
+        this.tickMs = expiration.getTickMs();
+        if (expiration.isEnabled()) {
+            this.tickScheduler = new ThreadPoolTaskScheduler();
+            this.tickScheduler.setPoolSize(1);
+            this.tickScheduler.setThreadNamePrefix("timer-expiration-");
+            this.tickScheduler.initialize();
+        } else {
+            this.tickScheduler = null;
+        }
+        this.expiredCounter =
+            Counter.builder("timer.expiration.expired").description("Timers expired by the server").register(meterRegistry);
+        Gauge
+            .builder("timer.expiration.scheduled", this, TimerExpirationService::getScheduledCount)
+            .description("Running timers waiting for expiration")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the expiration of a timer once the current transaction commits, or cancels it if the timer is no
+     * longer running.
+     *
+     * @param timer the saved timer.
+     */
+    public void schedule(Timer timer) {
+        if (timer.getId() == null) {
+            return;
+        }
+        if (timer.getStatus() != TimerStatus.Running || timer.getExpirationTime() == null) {
+            Long id = timer.getId();
+            TimerEventDTO.Type type;
+            if (timer.getStatus() == TimerStatus.Expired) {
+                type = TimerEventDTO.Type.EXPIRED;
+            } else if (timer.getStatus() == TimerStatus.Completed) {
+                type = TimerEventDTO.Type.COMPLETED;
+            } else {
+                type = TimerEventDTO.Type.CANCELLED;
+            }
+            TransactionCallbacks.afterCommit(() -> unschedule(id, type));
+            return;
+        }
+        User owner = timer.getAssignedTo();
+        if (owner != null && owner.getId() != null && owner.getLogin() == null) {
+            // A created timer only references its owner by id, the registry also serves the login.
+            owner = userRepository.findById(owner.getId()).orElse(owner);
+        }
+        Timer running = new Timer()
+            .id(timer.getId())
+            .duration(timer.getDuration())
+            .expirationTime(timer.getExpirationTime())
+            .status(TimerStatus.Running)
+            .assignedTo(owner);
+        TransactionCallbacks.afterCommit(() -> start(running));
+    }
+
+    /**
+     * Cancels the expiration of a timer once the current transaction commits.
+     *
+     * @param id the id of the timer.
+     */
+    public void cancel(Long id) {
+        TransactionCallbacks.afterCommit(() -> unschedule(id, TimerEventDTO.Type.CANCELLED));
+    }
+
+    /**
+     * Unschedules a timer once the current transaction commits, and publishes its completion even if it had already
+     * expired.
+     *
+     * @param timer the completed timer, with its owner.
+     */
+    public void complete(Timer timer) {
+        Long id = timer.getId();
+        Timer completed = new Timer()
+            .id(id)
+            .duration(timer.getDuration())
+            .expirationTime(timer.getExpirationTime())
+            .status(TimerStatus.Completed)
+            .assignedTo(timer.getAssignedTo());
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.cancel(id);
+                timerJournal.ended(id, TimerEventDTO.Type.COMPLETED);
+            }
+            activeTimerRegistry.remove(id);
+            timerEventService.publish(TimerEventDTO.Type.COMPLETED, completed);
+        });
+    }
+
+    private void start(Timer timer) {
+        Timer running = activeTimerRegistry.put(timer);
+        synchronized (wheel) {
+            wheel.schedule(running.getId(), running.getExpirationTime().toInstant().toEpochMilli());
+            timerJournal.started(running);
+        }
+        timerEventService.publish(TimerEventDTO.Type.STARTED, running);
+    }
+
+    private void unschedule(Long id, TimerEventDTO.Type type) {
+        synchronized (wheel) {
+            wheel.cancel(id);
+            timerJournal.ended(id, type);
+        }
+        activeTimerRegistry.remove(id).ifPresent(timer -> timerEventService.publish(type, timer));
+    }
+
+    public int getScheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Loads the running timers when the application starts, from the {@link TimerJournal} if it was readable and from
+     * the database otherwise. Journaled timers are only started if the database still has them running, and running
+     * timers missing from the journal are loaded from the database.
+     * <p>
+     * Listeners of the {@link ApplicationReadyEvent} run before the readiness state turns to accepting traffic, so the
+     * timers are scheduled before the node receives requests. The wheel starts ticking once they are loaded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRunningTimers() {
+        try {
+            loadRunningTimers();
+        } finally {
+            if (tickScheduler != null) {
+                tickScheduler.scheduleWithFixedDelay(this::expireDueTimers, Duration.ofMillis(tickMs));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stopTicking() {
+        if (tickScheduler != null) {
+            tickScheduler.shutdown();
+        }
+    }
+
+    private void loadRunningTimers() {
+        Optional<List<Timer>> journaled = timerJournal.replay();
+        if (journaled.isEmpty()) {
+            List<TimerRepository.TimerExpiration> running = timerRepository.findAllExpirationsByStatus(TimerStatus.Running);
+            running.forEach(this::start);
+            timerJournal.requestCompaction();
+            log.info("Scheduled {} running timers for expiration", running.size());
+            return;
+        }
+        // Timers ended by another node, or whose start or end was not journaled, are only known to the database.
+        Set<Long> running = new HashSet<>(timerRepository.findAllIdsByStatus(TimerStatus.Running));
+        int recovered = 0;
+        for (Timer timer : journaled.get()) {
+            if (running.remove(timer.getId())) {
+                start(timer);
+                recovered++;
+            }
+        }
+        List<Long> missing = new ArrayList<>(running);
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Long> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            timerRepository.findAllExpirationsByIdIn(chunk).forEach(this::start);
+        }
+        // Replaying journals the recovered timers again, the compaction drops the duplicates.
+        timerJournal.requestCompaction();
+        log.info(
+            "Scheduled {} running timers recovered from the journal, dropped {} ended since and added {} missing from it",
+            recovered,
+            journaled.get().size() - recovered,
+            missing.size()
+        );
+    }
+
+    private void start(TimerRepository.TimerExpiration expiration) {
+        if (expiration.getExpirationTime() == null) {
+            return;
+        }
+        Timer timer = new Timer()
+            .id(expiration.getId())
+            .duration(expiration.getDuration())
+            .expirationTime(expiration.getExpirationTime())
+            .status(TimerStatus.Running);
+        if (expiration.getUserId() != null) {
+            User owner = new User();
+            owner.setId(expiration.getUserId());
+            owner.setLogin(expiration.getUserLogin());
+            timer.setAssignedTo(owner);
+        }
+        start(timer);
+    }
+
+    /**
+     * Advances the wheel and expires the due timers.
+     * <p>
+     * This is scheduled on the dedicated thread to get fired every {@code application.timer.expiration.tick-ms}
+     * milliseconds.
+     */
+    public void expireDueTimers() {
+        LongArrayList due = new LongArrayList();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        List<Long> chunk = new ArrayList<>(Math.min(batchSize, due.size()));
+        for (int i = 0; i < due.size(); i++) {
+            chunk.add(due.get(i));
+            if (chunk.size() == batchSize || i == due.size() - 1) {
+                expireChunk(chunk);
+                chunk.clear();
+            }
+        }
+    }
+
+    private void expireChunk(List<Long> ids) {
+        List<TimerRepository.TimerExpiration> running;
+        try {
+            running = timerRepository.findAllExpirationsByIdInAndStatus(ids, TimerStatus.Running);
+        } catch (DataAccessException e) {
+            log.warn("Could not read {} due timers, retrying on next tick: {}", ids.size(), e.getMessage());
+            rescheduleOnNextTick(ids);
+            return;
+        }
+        // Timers ended since they were scheduled are no longer running, timers restarted since keep running until their
+        // new expiration time.
+        ZonedDateTime now = ZonedDateTime.now();
+        List<Long> due = new ArrayList<>(running.size());
+        synchronized (wheel) {
+            for (TimerRepository.TimerExpiration timer : running) {
+                if (timer.getExpirationTime() == null) {
+                    continue;
+                }
+                if (timer.getExpirationTime().isAfter(now)) {
+                    wheel.schedule(timer.getId(), timer.getExpirationTime().toInstant().toEpochMilli());
+                } else {
+                    due.add(timer.getId());
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            int expired = timerRepository.expireRunningTimersDueBy(due, now);
+            expiredCounter.increment(expired);
+            if (expired > 0) {
+                entityVersionService.changedForAll(Timer.class);
+            }
+            log.debug("Expired {} timers out of {} due", expired, ids.size());
+            for (Long id : due) {
+                timerJournal.ended(id, TimerEventDTO.Type.EXPIRED);
+                activeTimerRegistry.remove(id).ifPresent(timer -> timerEventService.publish(TimerEventDTO.Type.EXPIRED, timer));
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not expire {} timers, rescheduling them at their current expiration: {}", due.size(), e.getMessage());
+            reschedule(due);
+        }
+    }
+
+    private void reschedule(List<Long> ids) {
+        try {
+            List<TimerRepository.TimerExpiration> running = timerRepository.findAllExpirationsByIdInAndStatus(ids, TimerStatus.Running);
+            synchronized (wheel) {
+                for (TimerRepository.TimerExpiration timer : running) {
+                    if (timer.getExpirationTime() != null) {
+                        wheel.schedule(timer.getId(), timer.getExpirationTime().toInstant().toEpochMilli());
+                    }
+                }
+            }
+        } catch (DataAccessException e) {
+            rescheduleOnNextTick(ids);
+        }
+    }
+
+    private void rescheduleOnNextTick(List<Long> ids) {
+        long now = System.currentTimeMillis();
+        synchronized (wheel) {
+            for (Long id : ids) {
+                wheel.schedule(id, now);
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Append-only, memory-mapped journal of the running {@link Timer}s, so a restarting node recovers them and their owners
+ * without loading them from the database, which only checks which of them are still running.
+ * <p>
+ * Events are queued by the callers and written by a single background thread, which forces each drained batch to disk.
+ * Every record is a fixed size and carries a CRC32, so a record torn by a crash ends the replay. The journal is
+ * compacted into a snapshot of the {@link ActiveTimerRegistry} every {@code application.timer.journal.compact-interval-ms}
+ * milliseconds, when it is full, or when the queue overflowed. The snapshot is written to a temporary file and moved
+ * over the journal, so a crash during compaction keeps the previous journal.
+ * <p>
+ * If the journal cannot be written it is deleted and disabled, and the next start falls back to the database.
+ */
+@Service
+public class TimerJournal {
+
+    static final int HEADER_SIZE = 16;
+
+    static final int RECORD_SIZE = 96;
+
+    private static final int MAGIC = 0x544A524E;
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_LOGIN_LENGTH = 50;
+
+    private static final int LOGIN_OFFSET = 32;
+
+    private static final int CRC_OFFSET = RECORD_SIZE - Integer.BYTES;
+
+    private static final byte STARTED = 1;
+
+    private static final byte EXPIRED = 2;
+
+    private static final byte CANCELLED = 3;
+
+    private static final byte COMPLETED = 4;
+
+    private final Logger log = LoggerFactory.getLogger(TimerJournal.class);
+
+    private final ActiveTimerRegistry activeTimerRegistry;
+
+    private final boolean enabled;
+
+    private final Path path;
+
+    private final int sizeBytes;
+
+    private final BlockingQueue<Record> queue;
+
+    private final Map<Long, Timer> recovered = new LinkedHashMap<>();
+
+    private boolean recoveredFromJournal;
+
+    private volatile boolean writable;
+
+    private volatile boolean compactionRequested;
+
+    private volatile boolean overflowed;
+
+    private volatile boolean running = true;
+
+    private MappedByteBuffer buffer;
+
+    private Thread writer;
+
+    public TimerJournal(ApplicationProperties applicationProperties, ActiveTimerRegistry activeTimerRegistry) {
+        ApplicationProperties.Timer.Journal journal = applicationProperties.getTimer().getJournal();
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.enabled = journal.isEnabled();
+        this.path = Paths.get(journal.getPath());
+        this.sizeBytes = journal.getSizeBytes();
+        this.queue = new ArrayBlockingQueue<>(journal.getQueueCapacity());
+        if (enabled) {
+            open();
+        }
+    }
+
+    private void open() {
+        try {
+            boolean existed = Files.exists(path);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            buffer = map(path);
+            if (existed && buffer.getInt(0) == MAGIC && buffer.getInt(Integer.BYTES) == VERSION) {
+                buffer.position(scan(buffer, recovered));
+                log.info("Recovered {} running timers from journal {}", recovered.size(), path);
+                recoveredFromJournal = true;
+            } else {
+                if (existed) {
+                    log.warn("Ignoring unreadable timer journal {}", path);
+                }
+                writeHeader(buffer);
+            }
+        } catch (IOException e) {
+            log.warn("Could not open timer journal {}, running timers will be loaded from the database: {}", path, e.getMessage());
+            return;
+        }
+        writable = true;
+        writer = new Thread(this::write, "timer-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Gets the running timers recovered from the journal.
+     *
+     * @return the recovered timers, or empty if there was no readable journal and timers must be loaded from the database.
+     */
+    public Optional<List<Timer>> replay() {
+        if (!recoveredFromJournal) {
+            return Optional.empty();
+        }
+        List<Timer> timers = new ArrayList<>(recovered.values());
+        recovered.clear();
+        return Optional.of(timers);
+    }
+
+    /**
+     * Journals the start of a timer.
+     *
+     * @param timer the running timer.
+     */
+    public void started(Timer timer) {
+        append(new Record(STARTED, timer));
+    }
+
+    /**
+     * Journals the end of a timer.
+     *
+     * @param id the id of the timer.
+     * @param type the transition ending the timer.
+     */
+    public void ended(long id, TimerEventDTO.Type type) {
+        byte code;
+        switch (type) {
+            case EXPIRED:
+                code = EXPIRED;
+                break;
+            case COMPLETED:
+                code = COMPLETED;
+                break;
+            default:
+                code = CANCELLED;
+        }
+        append(new Record(code, new Timer().id(id)));
+    }
+
+    private void append(Record record) {
+        if (writable && !queue.offer(record)) {
+            // The snapshot written by the compaction covers the dropped events.
+            overflowed = true;
+        }
+    }
+
+    /**
+     * Compacts the journal into a snapshot of the running timers.
+     * <p>
+     * This is scheduled to get fired every {@code application.timer.journal.compact-interval-ms} milliseconds.
+     */
+    @Scheduled(fixedDelayString = "${application.timer.journal.compact-interval-ms:600000}")
+    public void requestCompaction() {
+        compactionRequested = true;
+    }
+
+    private void write() {
+        List<Record> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Record first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    for (Record record : batch) {
+                        if (buffer.remaining() < RECORD_SIZE) {
+                            compact();
+                        }
+                        record.writeTo(buffer);
+                    }
+                    buffer.force();
+                    batch.clear();
+                }
+                if (compactionRequested || overflowed) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.error("Could not write timer journal {}, disabling it: {}", path, e.getMessage());
+                disable();
+                return;
+            }
+        }
+    }
+
+    private void compact() throws IOException {
+        compactionRequested = false;
+        overflowed = false;
+        List<Timer> timers = activeTimerRegistry.getAll();
+        if (HEADER_SIZE + (long) timers.size() * RECORD_SIZE > sizeBytes) {
+            throw new IOException(timers.size() + " running timers do not fit in " + sizeBytes + " bytes");
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        MappedByteBuffer snapshot = map(compacted);
+        writeHeader(snapshot);
+        for (Timer timer : timers) {
+            new Record(STARTED, timer).writeTo(snapshot);
+        }
+        snapshot.force();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        buffer = snapshot;
+        log.debug("Compacted timer journal {} to {} running timers", path, timers.size());
+    }
+
+    private void disable() {
+        writable = false;
+        queue.clear();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete timer journal {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the queued events before the application shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid once the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, VERSION);
+        buffer.position(HEADER_SIZE);
+    }
+
+    /**
+     * Reads the valid records of a journal.
+     *
+     * @param buffer the journal.
+     * @param timers the running timers, updated by the records.
+     * @return the position following the last valid record.
+     */
+    static int scan(ByteBuffer buffer, Map<Long, Timer> timers) {
+        int position = HEADER_SIZE;
+        while (position + RECORD_SIZE <= buffer.capacity()) {
+            byte type = buffer.get(position);
+            if (type == 0 || buffer.getInt(position + CRC_OFFSET) != checksum(buffer, position)) {
+                break;
+            }
+            Timer timer = Record.readFrom(buffer, position);
+            if (type == STARTED) {
+                timers.put(timer.getId(), timer);
+            } else {
+                timers.remove(timer.getId());
+            }
+            position += RECORD_SIZE;
+        }
+        return position;
+    }
+
+    private static int checksum(ByteBuffer buffer, int position) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < CRC_OFFSET; i++) {
+            crc.update(buffer.get(position + i));
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A journaled event, written as {@code type, login length, duration, id, user id, expiration time in milliseconds,
+     * login, CRC32}.
+     */
+    private static final class Record {
+
+        private final byte type;
+
+        private final Timer timer;
+
+        Record(byte type, Timer timer) {
+            this.type = type;
+            this.timer = timer;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            int position = buffer.position();
+            User owner = timer.getAssignedTo();
+            byte[] login = owner != null && owner.getLogin() != null ? owner.getLogin().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            if (login.length > MAX_LOGIN_LENGTH) {
+                login = new byte[0];
+            }
+            for (int i = 0; i < RECORD_SIZE; i++) {
+                buffer.put(position + i, (byte) 0);
+            }
+            buffer.put(position, type);
+            buffer.put(position + 1, (byte) login.length);
+            buffer.putInt(position + 4, timer.getDuration() != null ? timer.getDuration() : -1);
+            buffer.putLong(position + 8, timer.getId());
+            buffer.putLong(position + 16, owner != null ? owner.getId() : -1);
+            buffer.putLong(position + 24, timer.getExpirationTime() != null ? timer.getExpirationTime().toInstant().toEpochMilli() : 0);
+            for (int i = 0; i < login.length; i++) {
+                buffer.put(position + LOGIN_OFFSET + i, login[i]);
+            }
+            buffer.putInt(position + CRC_OFFSET, checksum(buffer, position));
+            buffer.position(position + RECORD_SIZE);
+        }
+
+        static Timer readFrom(ByteBuffer buffer, int position) {
+            int duration = buffer.getInt(position + 4);
+            Timer timer = new Timer()
+                .id(buffer.getLong(position + 8))
+                .duration(duration >= 0 ? duration : null)
+                .expirationTime(ZonedDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(position + 24)), ZoneId.systemDefault()))
+                .status(TimerStatus.Running);
+            long userId = buffer.getLong(position + 16);
+            if (userId >= 0) {
+                byte[] login = new byte[buffer.get(position + 1)];
+                for (int i = 0; i < login.length; i++) {
+                    login[i] = buffer.get(position + LOGIN_OFFSET + i);
+                }
+                User owner = new User();
+                owner.setId(userId);
+                owner.setLogin(login.length > 0 ? new String(login, StandardCharsets.UTF_8) : null);
+                timer.setAssignedTo(owner);
+            }
+            return timer;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.repository.TimerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service expiring overdue running {@link Timer}s that the {@link TimerExpirationService} did not see, for example
+ * because they were created while this node was down.
+ * <p>
+ * Overdue timers are found through the {@code (status, expiration_time)} index and expired with bulk updates of at most
+ * {@code application.timer.sweeper.chunk-size} ids. The age of the oldest overdue timer found by the last sweep is
+ * published as the {@code timer.sweeper.lag} gauge.
+ */
+@Service
+public class TimerSweeperService {
+
+    private final Logger log = LoggerFactory.getLogger(TimerSweeperService.class);
+
+    private final TimerRepository timerRepository;
+
+    private final EntityVersionService entityVersionService;
+
+    private final int chunkSize;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private final Counter sweptCounter;
+
+    public TimerSweeperService(
+        TimerRepository timerRepository,
+        EntityVersionService entityVersionService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.timerRepository = timerRepository;
+        this.entityVersionService = entityVersionService;
+        this.chunkSize = applicationProperties.getTimer().getSweeper().getChunkSize();
+        this.sweptCounter =
+            Counter.builder("timer.sweeper.expired").description("Overdue timers expired by the sweeper").register(meterRegistry);
+        TimeGauge
+            .builder("timer.sweeper.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+            .description("Age of the oldest overdue running timer found by the last sweep")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Expires every running timer whose expiration time has passed.
+     * <p>
+     * This is scheduled to get fired every {@code application.timer.sweeper.interval-ms} milliseconds.
+     *
+     * @return the number of expired timers.
+     */
+    @Scheduled(fixedDelayString = "${application.timer.sweeper.interval-ms:60000}")
+    public int sweepOverdueTimers() {
+        ZonedDateTime now = ZonedDateTime.now();
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        long lag = 0;
+        int total = 0;
+        while (true) {
+            // Expired rows no longer match, so the first page always holds the next chunk.
+            List<TimerRepository.TimerExpiration> overdue = timerRepository.findAllOverdueByStatus(TimerStatus.Running, now, chunk);
+            if (overdue.isEmpty()) {
+                break;
+            }
+            if (total == 0) {
+                lag = Duration.between(overdue.get(0).getExpirationTime(), now).toMillis();
+            }
+            // Timers restarted since they were found overdue no longer are, and keep running.
+            int expired = timerRepository.expireOverdueTimers(
+                overdue.stream().map(TimerRepository.TimerExpiration::getId).collect(Collectors.toList()),
+                now
+            );
+            total += expired;
+            if (expired == 0 || overdue.size() < chunkSize) {
+                break;
+            }
+        }
+        lagMillis.set(lag);
+        if (total > 0) {
+            sweptCounter.increment(total);
+            entityVersionService.changedForAll(Timer.class);
+            log.info("Expired {} overdue timers, oldest was {} ms late", total, lag);
+        }
+        return total;
+    }
+}
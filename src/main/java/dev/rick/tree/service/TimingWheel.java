@@ -0,0 +1,213 @@
+package dev.rick.tree.service;
+
+import com.carrotsearch.hppc.LongObjectHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical hashed timing wheel keyed by entity id.
+ * <p>
+ * Level {@code 0} has {@code wheelSize} slots of one tick each; every further level has slots as wide as the whole
+ * level below it, so a deadline {@code n} ticks away is stored in {@code O(log n)} levels while add, cancel and expiry
+ * stay {@code O(1)} per entry. Deadlines are rounded up to the next tick, so an entry never fires early.
+ * <p>
+ * This class is not thread-safe, callers must synchronize access.
+ */
+public final class TimingWheel {
+
+    private final long tickMs;
+
+    private final int wheelSize;
+
+    private final List<Bucket[]> levels = new ArrayList<>();
+
+    private final LongObjectHashMap<Entry> entries = new LongObjectHashMap<>();
+
+    private long currentTick;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("wheelSize must be at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+        this.levels.add(newLevel());
+    }
+
+    /**
+     * Schedules {@code id} to fire at {@code expirationMs}, replacing any previous deadline for the same id.
+     * A deadline in the past fires on the next {@link #advance(long, LongConsumer)}.
+     *
+     * @param id the id to schedule.
+     * @param expirationMs the deadline, in epoch milliseconds.
+     */
+    public void schedule(long id, long expirationMs) {
+        cancel(id);
+        long deadlineTick = Math.max(-Math.floorDiv(-expirationMs, tickMs), currentTick + 1);
+        Entry entry = new Entry(id, deadlineTick);
+        entries.put(id, entry);
+        place(entry);
+    }
+
+    /**
+     * Removes {@code id} from the wheel.
+     *
+     * @param id the id to cancel.
+     * @return true if the id was scheduled.
+     */
+    public boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and hands every id whose deadline has passed to {@code expired}.
+     *
+     * @param nowMs the current time, in epoch milliseconds.
+     * @param expired receives the ids that expired, tick by tick.
+     */
+    public void advance(long nowMs, LongConsumer expired) {
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+        if (entries.isEmpty()) {
+            currentTick = Math.max(currentTick, targetTick);
+            return;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade coarser levels first so their entries can still fire during this tick.
+            long granularity = 1;
+            for (int level = 1; level < levels.size(); level++) {
+                granularity *= wheelSize;
+                if (currentTick % granularity == 0) {
+                    Bucket bucket = levels.get(level)[(int) ((currentTick / granularity) % wheelSize)];
+                    for (Entry entry = bucket.drain(); entry != null;) {
+                        Entry next = entry.next;
+                        entry.next = null;
+                        place(entry);
+                        entry = next;
+                    }
+                } else {
+                    break;
+                }
+            }
+            Bucket bucket = levels.get(0)[(int) (currentTick % wheelSize)];
+            for (Entry entry = bucket.drain(); entry != null;) {
+                Entry next = entry.next;
+                entry.next = null;
+                entries.remove(entry.id);
+                expired.accept(entry.id);
+                entry = next;
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long granularity = 1;
+        for (int level = 0;; level++) {
+            if (level == levels.size()) {
+                levels.add(newLevel());
+            }
+            long span = granularity * wheelSize;
+            long base = currentTick - currentTick % granularity;
+            if (entry.deadlineTick < base + span) {
+                levels.get(level)[(int) ((entry.deadlineTick / granularity) % wheelSize)].add(entry);
+                return;
+            }
+            granularity = span;
+        }
+    }
+
+    private Bucket[] newLevel() {
+        Bucket[] slots = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new Bucket();
+        }
+        return slots;
+    }
+
+    private static final class Entry {
+
+        private final long id;
+
+        private final long deadlineTick;
+
+        private Bucket bucket;
+
+        private Entry prev;
+
+        private Entry next;
+
+        private Entry(long id, long deadlineTick) {
+            this.id = id;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private void unlink() {
+            if (bucket != null) {
+                bucket.remove(this);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of entries sharing a slot, so cancellation does not have to scan the slot.
+     */
+    private static final class Bucket {
+
+        private Entry head;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.prev = null;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            head = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.bucket = null;
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        /**
+         * Detaches every entry and returns them as a singly linked chain through {@code next}.
+         */
+        private Entry drain() {
+            Entry first = head;
+            head = null;
+            for (Entry entry = first; entry != null; entry = entry.next) {
+                entry.bucket = null;
+                entry.prev = null;
+            }
+            return first;
+        }
+    }
+}
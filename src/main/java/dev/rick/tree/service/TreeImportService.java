@@ -0,0 +1,332 @@
+package dev.rick.tree.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.TreeImport;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.TreeImportRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.TreeImportDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service importing {@link Tree}s in bulk from a stream of NDJSON or CSV rows.
+ * <p>
+ * Rows use the format of the {@link DataExportService}: NDJSON objects with {@code trees} and {@code assignedTo.login},
+ * or CSV with a header naming the {@code trees} and {@code assigned_to_login} columns. Ids are ignored, rows with an
+ * unknown type or login are rejected.
+ * <p>
+ * Rows are committed in chunks of {@code application.tree.import.chunk-size}, each inserted with JDBC batches of
+ * {@code application.tree.import.batch-size} and without going through the second level cache. The logins of a chunk are
+ * resolved with a single query and kept in a bounded cache for the whole import. The {@link TreeImport} progress is
+ * advanced with each chunk, so sending the same rows again with the same key resumes after the last committed chunk.
+ */
+@Service
+public class TreeImportService {
+
+    private static final Long UNKNOWN_LOGIN = -1L;
+
+    private final Logger log = LoggerFactory.getLogger(TreeImportService.class);
+
+    private final TreeImportRepository treeImportRepository;
+
+    private final UserRepository userRepository;
+
+    private final TreeSummaryService treeSummaryService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int batchSize;
+
+    private final int loginCacheSize;
+
+    private final Counter importedCounter;
+
+    public TreeImportService(
+        TreeImportRepository treeImportRepository,
+        UserRepository userRepository,
+        TreeSummaryService treeSummaryService,
+        EntityVersionService entityVersionService,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Tree.Import importer = applicationProperties.getTree().getImport();
+        this.treeImportRepository = treeImportRepository;
+        this.userRepository = userRepository;
+        this.treeSummaryService = treeSummaryService;
+        this.entityVersionService = entityVersionService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = importer.getChunkSize();
+        this.batchSize = importer.getBatchSize();
+        this.loginCacheSize = importer.getLoginCacheSize();
+        this.importedCounter =
+            Counter.builder("tree.import.imported").description("Trees inserted by bulk imports").register(meterRegistry);
+    }
+
+    /**
+     * Imports trees, resuming the import with the same key if any.
+     *
+     * @param key the key of the import.
+     * @param format the format of the rows.
+     * @param in the rows.
+     * @return the outcome of the import.
+     * @throws IOException if the rows could not be read.
+     * @throws IllegalArgumentException if the CSV header has no {@code trees} column.
+     * @throws ConcurrencyFailureException if an import with the same key committed a chunk in the meantime.
+     */
+    public TreeImportDTO importTrees(String key, DataFormat format, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        TreeImport progress = transactionTemplate.execute(status ->
+            treeImportRepository
+                .findById(key)
+                .orElseGet(() ->
+                    treeImportRepository.save(new TreeImport().importKey(key).rowsCommitted(0L).rowsImported(0L).rowsRejected(0L))
+                )
+        );
+        long committed = progress.getRowsCommitted();
+        long skipped = 0;
+        long[] totals = new long[2];
+        Map<String, Long> loginIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > loginCacheSize;
+            }
+        };
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowParser parser = format == DataFormat.CSV ? csvParser(reader.readLine()) : this::parseJson;
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (skipped < progress.getRowsCommitted()) {
+                skipped++;
+                continue;
+            }
+            chunk.add(parser.parse(line));
+            if (chunk.size() == chunkSize) {
+                committed = commit(key, committed, chunk, loginIds, totals);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            committed = commit(key, committed, chunk, loginIds, totals);
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        TreeImportDTO result = new TreeImportDTO(key, skipped, totals[0], totals[1], committed, durationMs);
+        log.info(
+            "Imported {} trees and rejected {} rows of import {} in {} ms, {} rows/s",
+            result.getRowsImported(),
+            result.getRowsRejected(),
+            key,
+            durationMs,
+            result.getRowsPerSecond()
+        );
+        return result;
+    }
+
+    private long commit(String key, long from, List<Row> chunk, Map<String, Long> loginIds, long[] totals) {
+        resolveLogins(chunk, loginIds);
+        long[] counts = transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Integer previousBatchSize = session.getJdbcBatchSize();
+            CacheMode previousCacheMode = session.getCacheMode();
+            session.setJdbcBatchSize(batchSize);
+            session.setCacheMode(CacheMode.IGNORE);
+            try {
+                return insert(key, from, chunk, loginIds);
+            } finally {
+                session.setJdbcBatchSize(previousBatchSize);
+                session.setCacheMode(previousCacheMode);
+            }
+        });
+        totals[0] += counts[0];
+        totals[1] += counts[1];
+        importedCounter.increment(counts[0]);
+        return from + chunk.size();
+    }
+
+    private long[] insert(String key, long from, List<Row> chunk, Map<String, Long> loginIds) {
+        Map<Long, long[]> countsByUser = new HashMap<>();
+        Set<Long> owners = new HashSet<>();
+        long imported = 0;
+        long rejected = 0;
+        for (Row row : chunk) {
+            Long userId = row != null && row.login != null ? loginIds.get(row.login) : null;
+            if (row == null || UNKNOWN_LOGIN.equals(userId)) {
+                rejected++;
+                continue;
+            }
+            Tree tree = new Tree().trees(row.trees);
+            if (userId != null) {
+                tree.setAssignedTo(entityManager.getReference(User.class, userId));
+                owners.add(userId);
+                if (row.trees != null) {
+                    countsByUser.computeIfAbsent(userId, id -> new long[TreeType.values().length])[row.trees.ordinal()]++;
+                }
+            }
+            entityManager.persist(tree);
+            if (++imported % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        countsByUser.forEach((userId, counts) -> {
+            for (TreeType type : TreeType.values()) {
+                if (counts[type.ordinal()] > 0) {
+                    treeSummaryService.added(userId, type, counts[type.ordinal()]);
+                }
+            }
+        });
+        if (imported > 0) {
+            entityVersionService.changed(Tree.class, owners);
+        }
+        if (treeImportRepository.advance(key, from, from + chunk.size(), imported, rejected, Instant.now()) == 0) {
+            throw new ConcurrencyFailureException("Import " + key + " was advanced by another request");
+        }
+        return new long[] { imported, rejected };
+    }
+
+    private void resolveLogins(List<Row> chunk, Map<String, Long> loginIds) {
+        Set<String> missing = new HashSet<>();
+        for (Row row : chunk) {
+            if (row != null && row.login != null && !loginIds.containsKey(row.login)) {
+                missing.add(row.login);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (UserRepository.LoginId user : userRepository.findIdsByLoginIn(missing)) {
+            loginIds.put(user.getLogin(), user.getId());
+            missing.remove(user.getLogin());
+        }
+        missing.forEach(login -> loginIds.put(login, UNKNOWN_LOGIN));
+    }
+
+    private Row parseJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return Row.of(node.path("trees").textValue(), node.path("assignedTo").path("login").textValue());
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static RowParser csvParser(String header) {
+        List<String> columns = header != null ? splitCsv(header) : List.of();
+        int trees = columns.indexOf("trees");
+        int login = columns.indexOf("assigned_to_login");
+        if (trees < 0) {
+            throw new IllegalArgumentException("The CSV header has no trees column");
+        }
+        return line -> {
+            try {
+                List<String> values = splitCsv(line);
+                return Row.of(values.get(trees), login >= 0 && login < values.size() ? values.get(login) : null);
+            } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+                return null;
+            }
+        };
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * Parses a row, returning {@code null} if it is invalid.
+     */
+    @FunctionalInterface
+    private interface RowParser {
+        Row parse(String line);
+    }
+
+    private static final class Row {
+
+        private final TreeType trees;
+
+        private final String login;
+
+        private Row(TreeType trees, String login) {
+            this.trees = trees;
+            this.login = login;
+        }
+
+        static Row of(String trees, String login) {
+            return new Row(
+                trees == null || trees.isEmpty() ? null : TreeType.valueOf(trees),
+                login == null || login.isEmpty() ? null : login.toLowerCase(Locale.ENGLISH)
+            );
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package dev.rick.tree.service;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.UserForestSummary;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserForestSummaryRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.TreeSummaryDTO;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting the {@link Tree}s of a user by {@link TreeType}.
+ * <p>
+ * Counts are kept in the {@link UserForestSummary} table: every tree added or removed must go through
+ * {@link #added(Tree)} and {@link #removed(Tree)} in the transaction changing it, which increment the row of its owner
+ * and type. Summaries are cached per user, and evicted once the transaction commits.
+ * <p>
+ * {@link #rebuild()} recomputes the table from the {@code tree} table for repair, in chunks of
+ * {@code application.tree.summary.chunk-size} users rebuilt by the {@code treeSummaryExecutor},
+ * {@code application.tree.summary.parallelism} at a time.
+ */
+@Service
+public class TreeSummaryService {
+
+    public static final String TREE_SUMMARY_BY_USER_CACHE = "treeSummaryByUser";
+
+    private final Logger log = LoggerFactory.getLogger(TreeSummaryService.class);
+
+    private final UserForestSummaryRepository userForestSummaryRepository;
+
+    private final TreeRepository treeRepository;
+
+    private final UserRepository userRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor executor;
+
+    private final int chunkSize;
+
+    public TreeSummaryService(
+        UserForestSummaryRepository userForestSummaryRepository,
+        TreeRepository treeRepository,
+        UserRepository userRepository,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("treeSummaryExecutor") TaskExecutor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Tree.Summary summary = applicationProperties.getTree().getSummary();
+        this.userForestSummaryRepository = userForestSummaryRepository;
+        this.treeRepository = treeRepository;
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.chunkSize = summary.getChunkSize();
+    }
+
+    /**
+     * Counts the trees of a user by type.
+     *
+     * @param userId the id of the user.
+     * @return the summary, with every type present.
+     */
+    @Cacheable(cacheNames = TREE_SUMMARY_BY_USER_CACHE, key = "#userId")
+    @Transactional(readOnly = true)
+    public TreeSummaryDTO getSummary(Long userId) {
+        log.debug("Request to count Trees by type of user : {}", userId);
+        EnumMap<TreeType, Long> counts = new EnumMap<>(TreeType.class);
+        for (TreeType type : TreeType.values()) {
+            counts.put(type, 0L);
+        }
+        for (UserForestSummaryRepository.TreeTypeTotal row : userForestSummaryRepository.findTotalsByUserId(userId)) {
+            counts.put(row.getTreeType(), row.getTotal());
+        }
+        return new TreeSummaryDTO(counts);
+    }
+
+    /**
+     * Counts a tree inserted, or assigned to its owner or type, by the current transaction.
+     *
+     * @param tree the tree, ignored if it has no owner or type.
+     */
+    @Transactional
+    public void added(Tree tree) {
+        increment(tree, 1);
+    }
+
+    /**
+     * Counts trees of the same owner and type inserted in bulk by the current transaction.
+     *
+     * @param userId the id of the owner.
+     * @param treeType the type of the trees.
+     * @param count the number of trees.
+     */
+    @Transactional
+    public void added(Long userId, TreeType treeType, long count) {
+        increment(userId, treeType, count);
+    }
+
+    /**
+     * Uncounts a tree deleted, or about to be assigned to another owner or type, by the current transaction.
+     *
+     * @param tree the tree with its persisted owner and type, ignored if it has no owner or type.
+     */
+    @Transactional
+    public void removed(Tree tree) {
+        increment(tree, -1);
+    }
+
+    private void increment(Tree tree, long delta) {
+        if (tree.getAssignedTo() != null) {
+            increment(tree.getAssignedTo().getId(), tree.getTrees(), delta);
+        }
+    }
+
+    private void increment(Long userId, TreeType treeType, long delta) {
+        if (userId == null || treeType == null) {
+            return;
+        }
+        if (userForestSummaryRepository.incrementTotal(userId, treeType, delta) == 0) {
+            // First tree of the type: concurrent first trees wait for each other on the user, then increment the row
+            // inserted by the first one.
+            userRepository.lockById(userId);
+            if (userForestSummaryRepository.incrementTotal(userId, treeType, delta) == 0) {
+                userForestSummaryRepository.save(new UserForestSummary().userId(userId).treeType(treeType).total(Math.max(0, delta)));
+            }
+        }
+        TransactionCallbacks.afterCommit(() -> Objects.requireNonNull(cacheManager.getCache(TREE_SUMMARY_BY_USER_CACHE)).evict(userId));
+    }
+
+    /**
+     * Recomputes the summaries of all users from their trees.
+     * <p>
+     * This is scheduled with the {@code application.tree.summary.rebuild-cron} expression, disabled by default.
+     *
+     * @return the number of rows written.
+     */
+    @Scheduled(cron = "${application.tree.summary.rebuild-cron:-}")
+    public int rebuild() {
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        long after = 0;
+        while (true) {
+            List<Long> userIds = userRepository.findAllIdsAfter(after, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            chunks.add(CompletableFuture.supplyAsync(() -> rebuild(userIds), executor));
+            after = userIds.get(userIds.size() - 1);
+            if (userIds.size() < chunkSize) {
+                break;
+            }
+        }
+        int rows = chunks.stream().mapToInt(CompletableFuture::join).sum();
+        Objects.requireNonNull(cacheManager.getCache(TREE_SUMMARY_BY_USER_CACHE)).clear();
+        log.info("Rebuilt {} tree summary rows in {} chunks", rows, chunks.size());
+        return rows;
+    }
+
+    /**
+     * Recomputes the summaries of a chunk of users in a single transaction.
+     *
+     * @param userIds the ids of the users.
+     * @return the number of rows written.
+     */
+    public int rebuild(List<Long> userIds) {
+        Integer rows = transactionTemplate.execute(status -> {
+            userForestSummaryRepository.deleteByUserIdIn(userIds);
+            List<UserForestSummary> summaries = treeRepository
+                .countByTreesForAssignedToIdIn(userIds)
+                .stream()
+                .map(count -> new UserForestSummary().userId(count.getUserId()).treeType(count.getTrees()).total(count.getTotal()))
+                .collect(Collectors.toList());
+            userForestSummaryRepository.saveAll(summaries);
+            return summaries.size();
+        });
+        userIds.forEach(userId -> Objects.requireNonNull(cacheManager.getCache(TREE_SUMMARY_BY_USER_CACHE)).evict(userId));
+        return rows != null ? rows : 0;
+    }
+}
@@ -291,6 +291,16 @@ public class UserService {
         return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
     }
 
+    /**
+     * Gets the id of the current user, from its token, or from its login when the token does not carry it.
+     *
+     * @return the id of the current user, or empty if there is none.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getCurrentUserId() {
+        return SecurityUtils.getCurrentUserId().or(() -> SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findIdByLogin));
+    }
+
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
@@ -318,6 +328,7 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        Objects.requireNonNull(cacheManager.getCache(UserRepository.USER_IDS_BY_LOGIN_CACHE)).evict(user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
         }
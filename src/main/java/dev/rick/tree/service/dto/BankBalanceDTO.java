@@ -0,0 +1,62 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A DTO representing the number of trees owned by a user at a point in time, according to the bank ledger.
+ */
+public class BankBalanceDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private long treesowned;
+
+    private Instant at;
+
+    public BankBalanceDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BankBalanceDTO(Long userId, long treesowned, Instant at) {
+        this.userId = userId;
+        this.treesowned = treesowned;
+        this.at = at;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getTreesowned() {
+        return treesowned;
+    }
+
+    public void setTreesowned(long treesowned) {
+        this.treesowned = treesowned;
+    }
+
+    public Instant getAt() {
+        return at;
+    }
+
+    public void setAt(Instant at) {
+        this.at = at;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BankBalanceDTO{" +
+            "userId=" + userId +
+            ", treesowned=" + treesowned +
+            ", at='" + at + "'" +
+            "}";
+    }
+}
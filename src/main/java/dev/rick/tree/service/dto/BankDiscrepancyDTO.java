@@ -0,0 +1,76 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a {@link dev.rick.tree.domain.Bank} whose number of trees differs from the number of
+ * {@link dev.rick.tree.domain.Tree}s owned by its user.
+ * <p>
+ * The bank id is {@code null} when the user owns trees but has no bank.
+ */
+public class BankDiscrepancyDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long userId;
+
+    private Long bankId;
+
+    private long treesowned;
+
+    private long trees;
+
+    public BankDiscrepancyDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public BankDiscrepancyDTO(Long userId, Long bankId, long treesowned, long trees) {
+        this.userId = userId;
+        this.bankId = bankId;
+        this.treesowned = treesowned;
+        this.trees = trees;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBankId() {
+        return bankId;
+    }
+
+    public void setBankId(Long bankId) {
+        this.bankId = bankId;
+    }
+
+    public long getTreesowned() {
+        return treesowned;
+    }
+
+    public void setTreesowned(long treesowned) {
+        this.treesowned = treesowned;
+    }
+
+    public long getTrees() {
+        return trees;
+    }
+
+    public void setTrees(long trees) {
+        this.trees = trees;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BankDiscrepancyDTO{" +
+            "userId=" + userId +
+            ", bankId=" + bankId +
+            ", treesowned=" + treesowned +
+            ", trees=" + trees +
+            "}";
+    }
+}
@@ -0,0 +1,88 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a reconciliation of the {@link dev.rick.tree.domain.Bank}s with the
+ * {@link dev.rick.tree.domain.Tree}s of their users.
+ * <p>
+ * Only the first discrepancies found are listed, all of them are counted.
+ */
+public class BankReconciliationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int ranges;
+
+    private long users;
+
+    private long discrepancies;
+
+    private long repaired;
+
+    private long durationMs;
+
+    private List<BankDiscrepancyDTO> reported = new ArrayList<>();
+
+    public int getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(int ranges) {
+        this.ranges = ranges;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public void setUsers(long users) {
+        this.users = users;
+    }
+
+    public long getDiscrepancies() {
+        return discrepancies;
+    }
+
+    public void setDiscrepancies(long discrepancies) {
+        this.discrepancies = discrepancies;
+    }
+
+    public long getRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(long repaired) {
+        this.repaired = repaired;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<BankDiscrepancyDTO> getReported() {
+        return reported;
+    }
+
+    public void setReported(List<BankDiscrepancyDTO> reported) {
+        this.reported = reported;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BankReconciliationDTO{" +
+            "ranges=" + ranges +
+            ", users=" + users +
+            ", discrepancies=" + discrepancies +
+            ", repaired=" + repaired +
+            ", durationMs=" + durationMs +
+            "}";
+    }
+}
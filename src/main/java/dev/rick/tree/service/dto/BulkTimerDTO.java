@@ -0,0 +1,45 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing a group focus session: one {@link dev.rick.tree.domain.Timer} of the same duration per user.
+ */
+public class BulkTimerDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<Long> userIds = new ArrayList<>();
+
+    /**
+     * The duration of the session in seconds.
+     */
+    private Integer duration;
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BulkTimerDTO{" +
+            "userIds=" + userIds +
+            ", duration=" + duration +
+            "}";
+    }
+}
@@ -0,0 +1,88 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the position of a user on the leaderboard of {@link dev.rick.tree.domain.Bank}s.
+ * <p>
+ * Users owning the same number of trees share the same rank. The percentile is the share of users owning at most as
+ * many trees, so the leaders are at {@code 100}.
+ */
+public class LeaderboardEntryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int rank;
+
+    private Long userId;
+
+    private String login;
+
+    private long treesowned;
+
+    private double percentile;
+
+    public LeaderboardEntryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public LeaderboardEntryDTO(int rank, Long userId, String login, long treesowned, double percentile) {
+        this.rank = rank;
+        this.userId = userId;
+        this.login = login;
+        this.treesowned = treesowned;
+        this.percentile = percentile;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public long getTreesowned() {
+        return treesowned;
+    }
+
+    public void setTreesowned(long treesowned) {
+        this.treesowned = treesowned;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LeaderboardEntryDTO{" +
+            "rank=" + rank +
+            ", userId=" + userId +
+            ", login='" + login + "'" +
+            ", treesowned=" + treesowned +
+            ", percentile=" + percentile +
+            "}";
+    }
+}
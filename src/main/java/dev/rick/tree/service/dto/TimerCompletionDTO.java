@@ -0,0 +1,88 @@
+package dev.rick.tree.service.dto;
+
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of completing a {@link dev.rick.tree.domain.Timer}.
+ * <p>
+ * A timer is only rewarded once: completing it again returns {@code awarded = false} and no tree.
+ */
+public class TimerCompletionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long timerId;
+
+    private boolean awarded;
+
+    private Long treeId;
+
+    private TreeType treeType;
+
+    private Integer treesowned;
+
+    public TimerCompletionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TimerCompletionDTO(Long timerId, boolean awarded, Long treeId, TreeType treeType, Integer treesowned) {
+        this.timerId = timerId;
+        this.awarded = awarded;
+        this.treeId = treeId;
+        this.treeType = treeType;
+        this.treesowned = treesowned;
+    }
+
+    public Long getTimerId() {
+        return timerId;
+    }
+
+    public void setTimerId(Long timerId) {
+        this.timerId = timerId;
+    }
+
+    public boolean isAwarded() {
+        return awarded;
+    }
+
+    public void setAwarded(boolean awarded) {
+        this.awarded = awarded;
+    }
+
+    public Long getTreeId() {
+        return treeId;
+    }
+
+    public void setTreeId(Long treeId) {
+        this.treeId = treeId;
+    }
+
+    public TreeType getTreeType() {
+        return treeType;
+    }
+
+    public void setTreeType(TreeType treeType) {
+        this.treeType = treeType;
+    }
+
+    public Integer getTreesowned() {
+        return treesowned;
+    }
+
+    public void setTreesowned(Integer treesowned) {
+        this.treesowned = treesowned;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimerCompletionDTO{" +
+            "timerId=" + timerId +
+            ", awarded=" + awarded +
+            ", treeId=" + treeId +
+            ", treeType='" + treeType + "'" +
+            ", treesowned=" + treesowned +
+            "}";
+    }
+}
@@ -0,0 +1,91 @@
+package dev.rick.tree.service.dto;
+
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a {@link Timer}, with only the public attributes of its owner.
+ * <p>
+ * Running timers are served from the {@link dev.rick.tree.service.ActiveTimerRegistry}, whose snapshots only hold the
+ * id and login of their owner, and other timers from the database: both are served with the same fields.
+ */
+public class TimerDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private Integer duration;
+
+    private ZonedDateTime expirationTime;
+
+    private TimerStatus status;
+
+    private UserDTO assignedTo;
+
+    public TimerDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TimerDTO(Timer timer) {
+        this.id = timer.getId();
+        this.duration = timer.getDuration();
+        this.expirationTime = timer.getExpirationTime();
+        this.status = timer.getStatus();
+        this.assignedTo = timer.getAssignedTo() != null ? new UserDTO(timer.getAssignedTo()) : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public ZonedDateTime getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setExpirationTime(ZonedDateTime expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    public TimerStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TimerStatus status) {
+        this.status = status;
+    }
+
+    public UserDTO getAssignedTo() {
+        return assignedTo;
+    }
+
+    public void setAssignedTo(UserDTO assignedTo) {
+        this.assignedTo = assignedTo;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimerDTO{" +
+            "id=" + id +
+            ", duration=" + duration +
+            ", expirationTime='" + expirationTime + "'" +
+            ", status='" + status + "'" +
+            ", assignedTo=" + assignedTo +
+            "}";
+    }
+}
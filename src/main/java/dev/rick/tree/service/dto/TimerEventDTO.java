@@ -0,0 +1,82 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing a state transition of a {@link dev.rick.tree.domain.Timer}, pushed to its owner.
+ */
+public class TimerEventDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        STARTED,
+        CHECKPOINT,
+        EXPIRED,
+        CANCELLED,
+        COMPLETED,
+    }
+
+    private Type type;
+
+    private Long timerId;
+
+    private ZonedDateTime expirationTime;
+
+    private long remainingMillis;
+
+    public TimerEventDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TimerEventDTO(Type type, Long timerId, ZonedDateTime expirationTime, long remainingMillis) {
+        this.type = type;
+        this.timerId = timerId;
+        this.expirationTime = expirationTime;
+        this.remainingMillis = remainingMillis;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getTimerId() {
+        return timerId;
+    }
+
+    public void setTimerId(Long timerId) {
+        this.timerId = timerId;
+    }
+
+    public ZonedDateTime getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setExpirationTime(ZonedDateTime expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    public long getRemainingMillis() {
+        return remainingMillis;
+    }
+
+    public void setRemainingMillis(long remainingMillis) {
+        this.remainingMillis = remainingMillis;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TimerEventDTO{" +
+            "type=" + type +
+            ", timerId=" + timerId +
+            ", expirationTime='" + expirationTime + "'" +
+            ", remainingMillis=" + remainingMillis +
+            "}";
+    }
+}
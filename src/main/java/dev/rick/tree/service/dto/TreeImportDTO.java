@@ -0,0 +1,109 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of a bulk import of {@link dev.rick.tree.domain.Tree}s.
+ */
+public class TreeImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String key;
+
+    private long rowsSkipped;
+
+    private long rowsImported;
+
+    private long rowsRejected;
+
+    private long rowsCommitted;
+
+    private long durationMs;
+
+    private long rowsPerSecond;
+
+    public TreeImportDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TreeImportDTO(String key, long rowsSkipped, long rowsImported, long rowsRejected, long rowsCommitted, long durationMs) {
+        this.key = key;
+        this.rowsSkipped = rowsSkipped;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.rowsCommitted = rowsCommitted;
+        this.durationMs = durationMs;
+        this.rowsPerSecond = (rowsImported + rowsRejected) * 1000 / Math.max(1, durationMs);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public void setRowsSkipped(long rowsSkipped) {
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public long getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    public void setRowsCommitted(long rowsCommitted) {
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TreeImportDTO{" +
+            "key='" + key + "'" +
+            ", rowsSkipped=" + rowsSkipped +
+            ", rowsImported=" + rowsImported +
+            ", rowsRejected=" + rowsRejected +
+            ", rowsCommitted=" + rowsCommitted +
+            ", durationMs=" + durationMs +
+            ", rowsPerSecond=" + rowsPerSecond +
+            "}";
+    }
+}
@@ -0,0 +1,37 @@
+package dev.rick.tree.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the id and login of the owner of a {@link TreeRowDTO}.
+ */
+public final class TreeOwnerDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String login;
+
+    public TreeOwnerDTO(Long id, String login) {
+        this.id = id;
+        this.login = login;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TreeOwnerDTO{" +
+            "id=" + id +
+            ", login='" + login + '\'' +
+            "}";
+    }
+}
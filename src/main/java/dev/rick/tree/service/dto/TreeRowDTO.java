@@ -0,0 +1,51 @@
+package dev.rick.tree.service.dto;
+
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.io.Serializable;
+
+/**
+ * A DTO representing the id, {@link TreeType} and owner of a {@link dev.rick.tree.domain.Tree}, serialized like a tree
+ * whose owner only has an id and a login.
+ */
+public final class TreeRowDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final TreeType trees;
+
+    private final TreeOwnerDTO assignedTo;
+
+    public TreeRowDTO(Long id, TreeType trees, TreeOwnerDTO assignedTo) {
+        this.id = id;
+        this.trees = trees;
+        this.assignedTo = assignedTo;
+    }
+
+    public TreeRowDTO(Long id, TreeType trees, Long assignedToId, String assignedToLogin) {
+        this(id, trees, assignedToId != null ? new TreeOwnerDTO(assignedToId, assignedToLogin) : null);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public TreeType getTrees() {
+        return trees;
+    }
+
+    public TreeOwnerDTO getAssignedTo() {
+        return assignedTo;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TreeRowDTO{" +
+            "id=" + id +
+            ", trees='" + trees + '\'' +
+            ", assignedTo=" + assignedTo +
+            "}";
+    }
+}
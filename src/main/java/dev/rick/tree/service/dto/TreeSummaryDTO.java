@@ -0,0 +1,55 @@
+package dev.rick.tree.service.dto;
+
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A DTO representing the number of {@link dev.rick.tree.domain.Tree}s of a user for each {@link TreeType}.
+ * <p>
+ * Every type is present, with a count of zero if the user has no tree of that type.
+ */
+public class TreeSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Map<TreeType, Long> counts;
+
+    private long total;
+
+    public TreeSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TreeSummaryDTO(EnumMap<TreeType, Long> counts) {
+        this.counts = Collections.unmodifiableMap(counts);
+        this.total = counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public Map<TreeType, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<TreeType, Long> counts) {
+        this.counts = counts;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TreeSummaryDTO{" +
+            "counts=" + counts +
+            ", total=" + total +
+            "}";
+    }
+}
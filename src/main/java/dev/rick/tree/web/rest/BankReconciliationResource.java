@@ -0,0 +1,47 @@
+package dev.rick.tree.web.rest;
+
+import dev.rick.tree.security.AuthoritiesConstants;
+import dev.rick.tree.service.BankReconciliationService;
+import dev.rick.tree.service.dto.BankReconciliationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST controller reconciling the banks with the trees of their users on demand.
+ * <p>
+ * Progress of a running reconciliation is published as the {@code bank.reconciliation.progress} metric.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class BankReconciliationResource {
+
+    private final Logger log = LoggerFactory.getLogger(BankReconciliationResource.class);
+
+    private final BankReconciliationService bankReconciliationService;
+
+    public BankReconciliationResource(BankReconciliationService bankReconciliationService) {
+        this.bankReconciliationService = bankReconciliationService;
+    }
+
+    /**
+     * {@code POST  /admin/bank-reconciliation} : compare every bank with the trees of its user.
+     *
+     * @param repair whether to repair the discrepancies, or only report them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome,
+     * or with status {@code 409 (Conflict)} if a reconciliation is already running.
+     */
+    @PostMapping("/bank-reconciliation")
+    public ResponseEntity<BankReconciliationDTO> reconcileBanks(@RequestParam(defaultValue = "false") boolean repair) {
+        log.debug("REST request to reconcile Banks, repair : {}", repair);
+        return bankReconciliationService
+            .reconcile(repair)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "A reconciliation is already running"));
+    }
+}
@@ -1,19 +1,34 @@
 package dev.rick.tree.web.rest;
 
 import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
 import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.service.BankCounterService;
+import dev.rick.tree.service.BankLedgerService;
+import dev.rick.tree.service.EntityVersionService;
+import dev.rick.tree.service.LeaderboardService;
+import dev.rick.tree.service.UserService;
+import dev.rick.tree.service.dto.BankBalanceDTO;
 import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -34,8 +49,30 @@ public class BankResource {
 
     private final BankRepository bankRepository;
 
-    public BankResource(BankRepository bankRepository) {
+    private final BankCounterService bankCounterService;
+
+    private final LeaderboardService leaderboardService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final BankLedgerService bankLedgerService;
+
+    private final UserService userService;
+
+    public BankResource(
+        BankRepository bankRepository,
+        BankCounterService bankCounterService,
+        LeaderboardService leaderboardService,
+        EntityVersionService entityVersionService,
+        BankLedgerService bankLedgerService,
+        UserService userService
+    ) {
         this.bankRepository = bankRepository;
+        this.bankCounterService = bankCounterService;
+        this.leaderboardService = leaderboardService;
+        this.entityVersionService = entityVersionService;
+        this.bankLedgerService = bankLedgerService;
+        this.userService = userService;
     }
 
     /**
@@ -52,6 +89,9 @@ public class BankResource {
             throw new BadRequestAlertException("A new bank cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Bank result = bankRepository.save(bank);
+        leaderboardService.set(result);
+        bankLedgerService.adjust(null, 0, ownerId(result), treesowned(result));
+        entityVersionService.changed(Bank.class, result.getAssignedTo());
         return ResponseEntity
             .created(new URI("/api/banks/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -62,9 +102,10 @@ public class BankResource {
      * {@code PUT  /banks/:id} : Updates an existing bank.
      *
      * @param id the id of the bank to save.
-     * @param bank the bank to update.
+     * @param bank the bank to update, with the version it was read at.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bank,
      * or with status {@code 400 (Bad Request)} if the bank is not valid,
+     * or with status {@code 409 (Conflict)} if the bank was updated since it was read,
      * or with status {@code 500 (Internal Server Error)} if the bank couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -82,8 +123,17 @@ public class BankResource {
         if (!bankRepository.existsById(id)) {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
+        if (bank.getVersion() == null) {
+            throw new BadRequestAlertException("Invalid version", ENTITY_NAME, "versionnull");
+        }
 
-        Bank result = bankRepository.save(bank);
+        Bank previous = bankRepository.findById(id).orElseThrow();
+        Long previousOwnerId = ownerId(previous);
+        int previousTrees = treesowned(previous);
+        Bank result = bankRepository.saveAndFlush(bank);
+        leaderboardService.set(bankCounterService.withPending(result));
+        bankLedgerService.adjust(previousOwnerId, previousTrees, ownerId(result), treesowned(result));
+        entityVersionService.changedForAll(Bank.class);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, bank.getId().toString()))
@@ -98,6 +148,7 @@ public class BankResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bank,
      * or with status {@code 400 (Bad Request)} if the bank is not valid,
      * or with status {@code 404 (Not Found)} if the bank is not found,
+     * or with status {@code 409 (Conflict)} if a version is given and the bank was updated since,
      * or with status {@code 500 (Internal Server Error)} if the bank couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -119,13 +170,20 @@ public class BankResource {
         Optional<Bank> result = bankRepository
             .findById(bank.getId())
             .map(existingBank -> {
+                if (bank.getVersion() != null && !bank.getVersion().equals(existingBank.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Bank.class, id);
+                }
                 if (bank.getTreesowned() != null) {
+                    int previousTrees = treesowned(existingBank);
                     existingBank.setTreesowned(bank.getTreesowned());
+                    bankLedgerService.adjust(ownerId(existingBank), previousTrees, ownerId(existingBank), treesowned(existingBank));
                 }
 
                 return existingBank;
             })
             .map(bankRepository::save);
+        result.map(bankCounterService::withPending).ifPresent(leaderboardService::set);
+        result.ifPresent(existingBank -> entityVersionService.changed(Bank.class, existingBank.getAssignedTo()));
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -134,23 +192,120 @@ public class BankResource {
     }
 
     /**
-     * {@code GET  /banks} : get all the banks.
+     * {@code POST  /banks/:id/increment} : Add trees to the "id" bank with a single update, without loading it.
+     *
+     * @param id the id of the bank to update.
+     * @param by the number of trees to add.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if {@code by} is not positive,
+     * or with status {@code 404 (Not Found)} if the bank is not found.
+     */
+    @PostMapping("/banks/{id}/increment")
+    public ResponseEntity<Void> incrementBank(@PathVariable Long id, @RequestParam(defaultValue = "1") int by) {
+        log.debug("REST request to increment Bank : {} by {}", id, by);
+        if (by < 1) {
+            throw new BadRequestAlertException("Invalid amount", ENTITY_NAME, "amountinvalid");
+        }
+        if (bankRepository.incrementTreesownedByIdIn(List.of(id), by) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        leaderboardService.adjustBank(id, by);
+        bankRepository.findAssignedToIdById(id).ifPresent(userId -> bankLedgerService.earn(userId, by));
+        entityVersionService.changedForAll(Bank.class);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    /**
+     * {@code POST  /banks/:id/decrement} : Remove trees from the "id" bank with a single update, without loading it.
+     *
+     * @param id the id of the bank to update.
+     * @param by the number of trees to remove.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)},
+     * or with status {@code 400 (Bad Request)} if {@code by} is not positive or the bank owns fewer trees,
+     * or with status {@code 404 (Not Found)} if the bank is not found.
+     */
+    @PostMapping("/banks/{id}/decrement")
+    public ResponseEntity<Void> decrementBank(@PathVariable Long id, @RequestParam(defaultValue = "1") int by) {
+        log.debug("REST request to decrement Bank : {} by {}", id, by);
+        if (by < 1) {
+            throw new BadRequestAlertException("Invalid amount", ENTITY_NAME, "amountinvalid");
+        }
+        if (bankRepository.decrementTreesownedById(id, by) == 0) {
+            if (!bankRepository.existsById(id)) {
+                return ResponseEntity.notFound().build();
+            }
+            throw new BadRequestAlertException("Not enough trees", ENTITY_NAME, "insufficienttrees");
+        }
+        leaderboardService.adjustBank(id, -by);
+        bankRepository.findAssignedToIdById(id).ifPresent(userId -> bankLedgerService.spend(userId, by));
+        entityVersionService.changedForAll(Bank.class);
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()))
+            .build();
+    }
+
+    /**
+     * {@code GET  /banks} : get a page of banks, in id order.
+     * <p>
+     * Trees credited but not yet flushed by the {@link BankCounterService} are included in {@code treesowned}.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of banks in body.
+     * @param after the cursor of the page, taken from the {@code next} link of the previous page.
+     * @param size the page size, at most {@value KeysetPaginationUtil#MAX_SIZE}.
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of banks in body,
+     * or with status {@code 304 (Not Modified)} if no bank changed,
+     * or with status {@code 400 (Bad Request)} if the cursor is invalid.
      */
     @GetMapping("/banks")
-    public List<Bank> getAllBanks(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
-        log.debug("REST request to get all Banks");
+    public ResponseEntity<List<Bank>> getAllBanks(
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get a page of Banks after : {}", after);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Bank.class))) {
+            return null;
+        }
+        long cursor = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<Bank> banks;
         if (eagerload) {
-            return bankRepository.findAllWithEagerRelationships();
+            banks = bankRepository.findAllWithEagerRelationshipsAfter(cursor, KeysetPaginationUtil.limit(pageSize));
         } else {
-            return bankRepository.findAll();
+            banks = bankRepository.findAllAfter(cursor, KeysetPaginationUtil.limit(pageSize));
         }
+        banks = banks.stream().map(bankCounterService::withPending).collect(Collectors.toList());
+        return KeysetPaginationUtil.page(banks, pageSize, Bank::getId);
+    }
+
+    /**
+     * {@code GET  /banks/me/balance} : get the number of trees of the current user according to the bank ledger.
+     *
+     * @param at the point in time of the balance, now if not given.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the balance,
+     * or with status {@code 401 (Unauthorized)} if the current user is not found.
+     */
+    @GetMapping("/banks/me/balance")
+    @Transactional(readOnly = true)
+    public ResponseEntity<BankBalanceDTO> getCurrentUserBalance(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at
+    ) {
+        Long userId = getCurrentUserId();
+        log.debug("REST request to get the Bank balance of user : {} at {}", userId, at);
+        long treesowned = at != null ? bankLedgerService.getBalance(userId, at) : bankLedgerService.getBalance(userId);
+        return ResponseEntity.ok(new BankBalanceDTO(userId, treesowned, at != null ? at : Instant.now()));
     }
 
     /**
      * {@code GET  /banks/:id} : get the "id" bank.
+     * <p>
+     * Trees credited but not yet flushed by the {@link BankCounterService} are included in {@code treesowned}.
      *
      * @param id the id of the bank to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bank, or with status {@code 404 (Not Found)}.
@@ -158,7 +313,7 @@ public class BankResource {
     @GetMapping("/banks/{id}")
     public ResponseEntity<Bank> getBank(@PathVariable Long id) {
         log.debug("REST request to get Bank : {}", id);
-        Optional<Bank> bank = bankRepository.findOneWithEagerRelationships(id);
+        Optional<Bank> bank = bankRepository.findOneWithEagerRelationships(id).map(bankCounterService::withPending);
         return ResponseUtil.wrapOrNotFound(bank);
     }
 
@@ -171,10 +326,31 @@ public class BankResource {
     @DeleteMapping("/banks/{id}")
     public ResponseEntity<Void> deleteBank(@PathVariable Long id) {
         log.debug("REST request to delete Bank : {}", id);
+        bankRepository.findById(id).ifPresent(bank -> bankLedgerService.adjust(ownerId(bank), treesowned(bank), null, 0));
         bankRepository.deleteById(id);
+        leaderboardService.removeBank(id);
+        entityVersionService.changedForAll(Bank.class);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private static Long ownerId(Bank bank) {
+        User owner = bank.getAssignedTo();
+        return owner != null ? owner.getId() : null;
+    }
+
+    private static int treesowned(Bank bank) {
+        return bank.getTreesowned() != null ? bank.getTreesowned() : 0;
+    }
+
+    /**
+     * Gets the id of the current user from its token, or else from its login.
+     */
+    private Long getCurrentUserId() {
+        return userService
+            .getCurrentUserId()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Current user not found"));
+    }
 }
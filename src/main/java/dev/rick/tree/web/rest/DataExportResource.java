@@ -0,0 +1,94 @@
+package dev.rick.tree.web.rest;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.security.AuthoritiesConstants;
+import dev.rick.tree.service.DataExportService;
+import dev.rick.tree.service.DataFormat;
+import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * REST controller exporting whole tables.
+ * <p>
+ * Exports are written asynchronously while the rows are read, see {@link DataExportService}, and time out after
+ * {@code application.export.timeout} rather than the default timeout of asynchronous requests.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class DataExportResource {
+
+    private static final String ENTITY_NAME = "export";
+
+    private final Logger log = LoggerFactory.getLogger(DataExportResource.class);
+
+    private final DataExportService dataExportService;
+
+    private final long timeoutMs;
+
+    public DataExportResource(DataExportService dataExportService, ApplicationProperties applicationProperties) {
+        this.dataExportService = dataExportService;
+        this.timeoutMs = applicationProperties.getExport().getTimeout().toMillis();
+    }
+
+    /**
+     * {@code GET  /admin/export/trees} : export all the trees.
+     *
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @param response the response the trees are streamed to.
+     * @return the {@link WebAsyncTask} answering with status {@code 200 (OK)} and the trees streamed in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/trees")
+    public WebAsyncTask<Void> exportTrees(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+        log.debug("REST request to export Trees as {}", format);
+        DataFormat exportFormat = parseFormat(format);
+        return stream(response, "trees", exportFormat, out -> dataExportService.exportTrees(exportFormat, out));
+    }
+
+    /**
+     * {@code GET  /admin/export/timers} : export all the timers.
+     *
+     * @param format the format of the export, {@code ndjson} or {@code csv}.
+     * @param response the response the timers are streamed to.
+     * @return the {@link WebAsyncTask} answering with status {@code 200 (OK)} and the timers streamed in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/timers")
+    public WebAsyncTask<Void> exportTimers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+        log.debug("REST request to export Timers as {}", format);
+        DataFormat exportFormat = parseFormat(format);
+        return stream(response, "timers", exportFormat, out -> dataExportService.exportTimers(exportFormat, out));
+    }
+
+    private static DataFormat parseFormat(String format) {
+        return DataFormat
+            .of(format)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid"));
+    }
+
+    private WebAsyncTask<Void> stream(HttpServletResponse response, String name, DataFormat format, StreamingResponseBody body) {
+        return new WebAsyncTask<>(
+            timeoutMs,
+            () -> {
+                // Written by the task, as a StreamingResponseBody would only get the default timeout.
+                response.setContentType(format.getMediaType().toString());
+                response.setHeader(
+                    HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename(name + "." + format.getExtension()).build().toString()
+                );
+                body.writeTo(response.getOutputStream());
+                response.flushBuffer();
+                return null;
+            }
+        );
+    }
+}
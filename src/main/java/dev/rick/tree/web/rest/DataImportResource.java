@@ -0,0 +1,73 @@
+package dev.rick.tree.web.rest;
+
+import dev.rick.tree.security.AuthoritiesConstants;
+import dev.rick.tree.service.DataFormat;
+import dev.rick.tree.service.TreeImportService;
+import dev.rick.tree.service.dto.TreeImportDTO;
+import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller importing rows in bulk.
+ * <p>
+ * The body is read as it is received and committed in chunks, see {@link TreeImportService}.
+ */
+@RestController
+@RequestMapping("/api/admin/import")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class DataImportResource {
+
+    private static final String ENTITY_NAME = "import";
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,100}");
+
+    private final Logger log = LoggerFactory.getLogger(DataImportResource.class);
+
+    private final TreeImportService treeImportService;
+
+    public DataImportResource(TreeImportService treeImportService) {
+        this.treeImportService = treeImportService;
+    }
+
+    /**
+     * {@code POST  /admin/import/trees} : import trees from NDJSON or CSV rows.
+     * <p>
+     * Sending the same rows again with the same key resumes the import after the last committed chunk.
+     *
+     * @param key the key of the import, made of at most 100 letters, digits, dots, dashes and underscores.
+     * @param contentType the format of the rows, {@code application/x-ndjson} or {@code text/csv}.
+     * @param body the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of the import,
+     * or with status {@code 400 (Bad Request)} if the key or the CSV header is invalid,
+     * or with status {@code 409 (Conflict)} if another import with the same key is running.
+     * @throws IOException if the body could not be read.
+     */
+    @PostMapping(value = "/trees", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<TreeImportDTO> importTrees(
+        @RequestParam String key,
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        InputStream body
+    ) throws IOException {
+        log.debug("REST request to import Trees : {}", key);
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            throw new BadRequestAlertException("Invalid import key", ENTITY_NAME, "keyinvalid");
+        }
+        DataFormat format = DataFormat
+            .of(contentType)
+            .orElseThrow(() -> new BadRequestAlertException("Unsupported import format", ENTITY_NAME, "formatinvalid"));
+        try {
+            return ResponseEntity.ok(treeImportService.importTrees(key, format, body));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "headerinvalid");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.rick.tree.web.rest;
+
+import dev.rick.tree.security.SecurityUtils;
+import dev.rick.tree.service.LeaderboardService;
+import dev.rick.tree.service.dto.LeaderboardEntryDTO;
+import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller ranking users by the number of trees they own.
+ * <p>
+ * The leaderboard is served from memory, see {@link LeaderboardService}.
+ */
+@RestController
+@RequestMapping("/api")
+public class LeaderboardResource {
+
+    private static final String ENTITY_NAME = "leaderboard";
+
+    private final Logger log = LoggerFactory.getLogger(LeaderboardResource.class);
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardResource(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * {@code GET  /leaderboard} : get the top of the leaderboard.
+     *
+     * @param top the number of entries, at most {@code application.leaderboard.max-top}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the entries in body, best first,
+     * or with status {@code 400 (Bad Request)} if {@code top} is not positive.
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(@RequestParam(defaultValue = "10") int top) {
+        log.debug("REST request to get the top {} of the leaderboard", top);
+        if (top < 1) {
+            throw new BadRequestAlertException("Invalid top", ENTITY_NAME, "topinvalid");
+        }
+        return ResponseEntity.ok(leaderboardService.getTop(top));
+    }
+
+    /**
+     * {@code GET  /leaderboard/me} : get the rank of the current user.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the entry of the current user,
+     * or with status {@code 404 (Not Found)} if the current user has no bank.
+     */
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<LeaderboardEntryDTO> getCurrentUserLeaderboardEntry() {
+        log.debug("REST request to get the leaderboard entry of the current user");
+        Optional<LeaderboardEntryDTO> entry = SecurityUtils.getCurrentUserLogin().flatMap(leaderboardService::getEntry);
+        return ResponseUtil.wrapOrNotFound(entry);
+    }
+}
@@ -0,0 +1,70 @@
+package dev.rick.tree.web.rest;
+
+import dev.rick.tree.domain.TimerHistory;
+import dev.rick.tree.repository.TimerHistoryRepository;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for reading {@link dev.rick.tree.domain.TimerHistory}.
+ * <p>
+ * Archived timers are only served here, {@link TimerResource} never reads the history.
+ */
+@RestController
+@RequestMapping("/api")
+@Transactional(readOnly = true)
+public class TimerHistoryResource {
+
+    private final Logger log = LoggerFactory.getLogger(TimerHistoryResource.class);
+
+    private final TimerHistoryRepository timerHistoryRepository;
+
+    public TimerHistoryResource(TimerHistoryRepository timerHistoryRepository) {
+        this.timerHistoryRepository = timerHistoryRepository;
+    }
+
+    /**
+     * {@code GET  /timer-histories} : get a page of the archived timers.
+     *
+     * @param assignedToId the id of the user to filter on, if any.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of archived timers in body.
+     */
+    @GetMapping("/timer-histories")
+    public ResponseEntity<List<TimerHistory>> getAllTimerHistories(
+        @RequestParam(required = false) Long assignedToId,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to get a page of TimerHistories of user : {}", assignedToId);
+        Page<TimerHistory> page = assignedToId != null
+            ? timerHistoryRepository.findAllByAssignedToId(assignedToId, pageable)
+            : timerHistoryRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /timer-histories/:id} : get the "id" archived timer.
+     *
+     * @param id the id of the archived timer to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the archived timer,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/timer-histories/{id}")
+    public ResponseEntity<TimerHistory> getTimerHistory(@PathVariable Long id) {
+        log.debug("REST request to get TimerHistory : {}", id);
+        Optional<TimerHistory> timerHistory = timerHistoryRepository.findById(id);
+        return ResponseUtil.wrapOrNotFound(timerHistory);
+    }
+}
@@ -1,19 +1,47 @@
 package dev.rick.tree.web.rest;
 
+import dev.rick.tree.config.ApplicationProperties;
 import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.domain.enumeration.TreeType;
 import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.ActiveTimerRegistry;
+import dev.rick.tree.service.EntityVersionService;
+import dev.rick.tree.service.TimerCompletionService;
+import dev.rick.tree.service.TimerEventService;
+import dev.rick.tree.service.TimerExpirationService;
+import dev.rick.tree.service.UserService;
+import dev.rick.tree.service.dto.BulkTimerDTO;
+import dev.rick.tree.service.dto.TimerCompletionDTO;
+import dev.rick.tree.service.dto.TimerDTO;
+import dev.rick.tree.service.dto.TimerEventDTO;
 import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -29,13 +57,49 @@ public class TimerResource {
 
     private static final String ENTITY_NAME = "timer";
 
+    private static final int MAX_BULK_SIZE = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final TimerRepository timerRepository;
 
-    public TimerResource(TimerRepository timerRepository) {
+    private final TimerExpirationService timerExpirationService;
+
+    private final TimerCompletionService timerCompletionService;
+
+    private final TimerEventService timerEventService;
+
+    private final ActiveTimerRegistry activeTimerRegistry;
+
+    private final UserRepository userRepository;
+
+    private final UserService userService;
+
+    private final EntityVersionService entityVersionService;
+
+    private final long streamTimeoutMs;
+
+    public TimerResource(
+        TimerRepository timerRepository,
+        TimerExpirationService timerExpirationService,
+        TimerCompletionService timerCompletionService,
+        TimerEventService timerEventService,
+        ActiveTimerRegistry activeTimerRegistry,
+        UserRepository userRepository,
+        UserService userService,
+        EntityVersionService entityVersionService,
+        ApplicationProperties applicationProperties
+    ) {
         this.timerRepository = timerRepository;
+        this.timerExpirationService = timerExpirationService;
+        this.timerCompletionService = timerCompletionService;
+        this.timerEventService = timerEventService;
+        this.activeTimerRegistry = activeTimerRegistry;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.entityVersionService = entityVersionService;
+        this.streamTimeoutMs = applicationProperties.getTimer().getEvents().getStreamTimeoutMs();
     }
 
     /**
@@ -52,12 +116,74 @@ public class TimerResource {
             throw new BadRequestAlertException("A new timer cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Timer result = timerRepository.save(timer);
+        timerExpirationService.schedule(result);
+        entityVersionService.changed(Timer.class, result.getAssignedTo());
         return ResponseEntity
             .created(new URI("/api/timers/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
             .body(result);
     }
 
+    /**
+     * {@code POST  /timers/bulk} : Start a group focus session, with one running timer per user.
+     * <p>
+     * Every user has a single timer, so the finished timer of a user is restarted rather than replaced. All timers are
+     * written in one transaction, with batched inserts and updates.
+     *
+     * @param bulkTimer the users and the duration of the session.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the ids of the timers, in the order of the users,
+     * or with status {@code 400 (Bad Request)} if the session is not valid, a user is not found or already has a running timer.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/timers/bulk")
+    public ResponseEntity<List<Long>> createTimers(@RequestBody BulkTimerDTO bulkTimer) throws URISyntaxException {
+        log.debug("REST request to save Timers : {}", bulkTimer);
+        if (bulkTimer.getDuration() == null || bulkTimer.getDuration() <= 0) {
+            throw new BadRequestAlertException("Invalid duration", ENTITY_NAME, "durationinvalid");
+        }
+        Set<Long> userIds = bulkTimer.getUserIds() != null ? new LinkedHashSet<>(bulkTimer.getUserIds()) : Set.of();
+        if (userIds.isEmpty() || userIds.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException("Invalid number of users", ENTITY_NAME, "usersinvalid");
+        }
+        Map<Long, User> users = userRepository.findAllById(userIds).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        if (users.size() != userIds.size()) {
+            throw new BadRequestAlertException("User not found", ENTITY_NAME, "usernotfound");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        Map<Long, Timer> existing = timerRepository
+            .findAllByAssignedToIdIn(userIds)
+            .stream()
+            .collect(Collectors.toMap(timer -> timer.getAssignedTo().getId(), Function.identity()));
+        boolean running = existing
+            .values()
+            .stream()
+            .anyMatch(timer -> timer.getStatus() == TimerStatus.Running && timer.getExpirationTime().isAfter(now));
+        if (running) {
+            throw new BadRequestAlertException("A user already has a running timer", ENTITY_NAME, "timerrunning");
+        }
+
+        ZonedDateTime expirationTime = now.plusSeconds(bulkTimer.getDuration());
+        List<Timer> timers = userIds
+            .stream()
+            .map(userId -> existing.getOrDefault(userId, new Timer().assignedTo(users.get(userId))))
+            .map(timer -> timer.duration(bulkTimer.getDuration()).expirationTime(expirationTime).status(TimerStatus.Running))
+            .collect(Collectors.toList());
+        List<Timer> result = timerRepository.saveAllAndFlush(timers);
+        result.forEach(timerExpirationService::schedule);
+        entityVersionService.changed(Timer.class, userIds);
+        return ResponseEntity
+            .created(new URI("/api/timers"))
+            .headers(
+                HeaderUtil.createAlert(
+                    applicationName,
+                    "A group session of " + result.size() + " timers is started",
+                    String.valueOf(result.size())
+                )
+            )
+            .body(result.stream().map(Timer::getId).collect(Collectors.toList()));
+    }
+
     /**
      * {@code PUT  /timers/:id} : Updates an existing timer.
      *
@@ -84,6 +210,8 @@ public class TimerResource {
         }
 
         Timer result = timerRepository.save(timer);
+        timerExpirationService.schedule(result);
+        entityVersionService.changedForAll(Timer.class);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, timer.getId().toString()))
@@ -132,6 +260,8 @@ public class TimerResource {
                 return existingTimer;
             })
             .map(timerRepository::save);
+        result.ifPresent(timerExpirationService::schedule);
+        result.ifPresent(existingTimer -> entityVersionService.changed(Timer.class, existingTimer.getAssignedTo()));
 
         return ResponseUtil.wrapOrNotFound(
             result,
@@ -140,32 +270,121 @@ public class TimerResource {
     }
 
     /**
-     * {@code GET  /timers} : get all the timers.
+     * {@code POST  /timers/:id/complete} : Complete a finished timer and award a tree to its owner.
+     * <p>
+     * The timer is completed, the tree is created and the bank of the owner is credited in one transaction. Completing
+     * a timer again does not award another tree.
+     *
+     * @param id the id of the timer to complete.
+     * @param treeType the type of the awarded tree.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of the completion,
+     * or with status {@code 400 (Bad Request)} if the timer has no owner or is not finished yet,
+     * or with status {@code 404 (Not Found)} if the timer is not found.
+     */
+    @PostMapping("/timers/{id}/complete")
+    public ResponseEntity<TimerCompletionDTO> completeTimer(@PathVariable Long id, @RequestParam("treeType") TreeType treeType) {
+        log.debug("REST request to complete Timer : {}, {}", id, treeType);
+        Optional<TimerCompletionDTO> result = timerRepository
+            .findOneWithEagerRelationships(id)
+            .map(timer -> {
+                if (timer.getAssignedTo() == null) {
+                    throw new BadRequestAlertException("A timer without owner cannot be completed", ENTITY_NAME, "noowner");
+                }
+                if (
+                    timer.getStatus() != TimerStatus.Completed &&
+                    (timer.getExpirationTime() == null || timer.getExpirationTime().isAfter(ZonedDateTime.now()))
+                ) {
+                    throw new BadRequestAlertException("The timer is not finished yet", ENTITY_NAME, "notfinished");
+                }
+                return timerCompletionService.complete(timer, treeType);
+            });
+        return ResponseUtil.wrapOrNotFound(result);
+    }
+
+    /**
+     * {@code GET  /timers} : get a page of timers, in id order.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of timers in body.
+     * @param after the cursor of the page, taken from the {@code next} link of the previous page.
+     * @param size the page size, at most {@value KeysetPaginationUtil#MAX_SIZE}.
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of timers in body,
+     * or with status {@code 304 (Not Modified)} if no timer changed,
+     * or with status {@code 400 (Bad Request)} if the cursor is invalid.
      */
     @GetMapping("/timers")
-    public List<Timer> getAllTimers(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
-        log.debug("REST request to get all Timers");
+    public ResponseEntity<List<Timer>> getAllTimers(
+        @RequestParam(required = false, defaultValue = "false") boolean eagerload,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get a page of Timers after : {}", after);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Timer.class))) {
+            return null;
+        }
+        long cursor = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<Timer> timers;
         if (eagerload) {
-            return timerRepository.findAllWithEagerRelationships();
+            timers = timerRepository.findAllWithEagerRelationshipsAfter(cursor, KeysetPaginationUtil.limit(pageSize));
         } else {
-            return timerRepository.findAll();
+            timers = timerRepository.findAllAfter(cursor, KeysetPaginationUtil.limit(pageSize));
+        }
+        return KeysetPaginationUtil.page(timers, pageSize, Timer::getId);
+    }
+
+    /**
+     * {@code GET  /timers/stream} : stream the timer events of the current user as Server-Sent Events.
+     * <p>
+     * The emitter is completed asynchronously, so an idle stream does not hold a request thread, and it is completed
+     * when its client falls behind the events.
+     *
+     * @return the {@link SseEmitter} sending {@code started}, {@code checkpoint}, {@code expired}, {@code cancelled}
+     * and {@code completed} events,
+     * or with status {@code 401 (Unauthorized)} if there is no current user.
+     */
+    @GetMapping(value = "/timers/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Transactional(readOnly = true)
+    public SseEmitter streamTimerEvents() {
+        Long userId = userService
+            .getCurrentUserId()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Current user not found"));
+        log.debug("REST request to stream Timer events of user : {}", userId);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Runnable unsubscribe = timerEventService.subscribe(userId, event -> send(emitter, event), emitter::complete);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, TimerEventDTO event) {
+        try {
+            emitter.send(SseEmitter.event().name(event.getType().name().toLowerCase()).data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            throw new IllegalStateException("Timer event stream is closed", e);
         }
     }
 
     /**
      * {@code GET  /timers/:id} : get the "id" timer.
+     * <p>
+     * Running timers are served from the {@link ActiveTimerRegistry}, other timers are read from the database. Both are
+     * served as a {@link TimerDTO}, whose owner only has the id and login held by the registry.
      *
      * @param id the id of the timer to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the timer, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/timers/{id}")
-    public ResponseEntity<Timer> getTimer(@PathVariable Long id) {
+    public ResponseEntity<TimerDTO> getTimer(@PathVariable Long id) {
         log.debug("REST request to get Timer : {}", id);
-        Optional<Timer> timer = timerRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(timer);
+        Optional<Timer> timer = activeTimerRegistry.get(id);
+        if (timer.isEmpty()) {
+            timer = timerRepository.findOneWithEagerRelationships(id);
+        }
+        return ResponseUtil.wrapOrNotFound(timer.map(TimerDTO::new));
     }
 
     /**
@@ -178,6 +397,8 @@ public class TimerResource {
     public ResponseEntity<Void> deleteTimer(@PathVariable Long id) {
         log.debug("REST request to delete Timer : {}", id);
         timerRepository.deleteById(id);
+        timerExpirationService.cancel(id);
+        entityVersionService.changedForAll(Timer.class);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -1,19 +1,35 @@
 package dev.rick.tree.web.rest;
 
 import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
 import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.security.SecurityUtils;
+import dev.rick.tree.service.EntityVersionService;
+import dev.rick.tree.service.ForestCodec;
+import dev.rick.tree.service.TreeSummaryService;
+import dev.rick.tree.service.UserService;
+import dev.rick.tree.service.dto.TreeOwnerDTO;
+import dev.rick.tree.service.dto.TreeRowDTO;
+import dev.rick.tree.service.dto.TreeSummaryDTO;
 import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -34,8 +50,22 @@ public class TreeResource {
 
     private final TreeRepository treeRepository;
 
-    public TreeResource(TreeRepository treeRepository) {
+    private final TreeSummaryService treeSummaryService;
+
+    private final UserService userService;
+
+    private final EntityVersionService entityVersionService;
+
+    public TreeResource(
+        TreeRepository treeRepository,
+        TreeSummaryService treeSummaryService,
+        UserService userService,
+        EntityVersionService entityVersionService
+    ) {
         this.treeRepository = treeRepository;
+        this.treeSummaryService = treeSummaryService;
+        this.userService = userService;
+        this.entityVersionService = entityVersionService;
     }
 
     /**
@@ -52,6 +82,8 @@ public class TreeResource {
             throw new BadRequestAlertException("A new tree cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Tree result = treeRepository.save(tree);
+        treeSummaryService.added(result);
+        entityVersionService.changed(Tree.class, result.getAssignedTo());
         return ResponseEntity
             .created(new URI("/api/trees/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -83,7 +115,12 @@ public class TreeResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
+        Optional<Tree> existingTree = treeRepository.findById(id);
+        existingTree.ifPresent(treeSummaryService::removed);
+        User previousOwner = existingTree.map(Tree::getAssignedTo).orElse(null);
         Tree result = treeRepository.save(tree);
+        treeSummaryService.added(result);
+        entityVersionService.changed(Tree.class, previousOwner, result.getAssignedTo());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, tree.getId().toString()))
@@ -120,8 +157,11 @@ public class TreeResource {
             .findById(tree.getId())
             .map(existingTree -> {
                 if (tree.getTrees() != null) {
+                    treeSummaryService.removed(existingTree);
                     existingTree.setTrees(tree.getTrees());
+                    treeSummaryService.added(existingTree);
                 }
+                entityVersionService.changed(Tree.class, existingTree.getAssignedTo());
 
                 return existingTree;
             })
@@ -134,19 +174,129 @@ public class TreeResource {
     }
 
     /**
-     * {@code GET  /trees} : get all the trees.
+     * {@code GET  /trees} : get a page of trees, in id order.
+     * <p>
+     * Trees are read as {@link TreeRowDTO}s, with the id and login of their owner only.
      *
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of trees in body.
+     * @param after the cursor of the page, taken from the {@code next} link of the previous page.
+     * @param size the page size, at most {@value KeysetPaginationUtil#MAX_SIZE}.
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of trees in body,
+     * or with status {@code 304 (Not Modified)} if no tree changed,
+     * or with status {@code 400 (Bad Request)} if the cursor is invalid.
      */
     @GetMapping("/trees")
-    public List<Tree> getAllTrees(@RequestParam(required = false, defaultValue = "false") boolean eagerload) {
-        log.debug("REST request to get all Trees");
-        if (eagerload) {
-            return treeRepository.findAllWithEagerRelationships();
-        } else {
-            return treeRepository.findAll();
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TreeRowDTO>> getAllTrees(
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Integer size,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get a page of Trees after : {}", after);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Tree.class))) {
+            return null;
+        }
+        long cursor = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+        int pageSize = KeysetPaginationUtil.pageSize(size);
+        List<TreeRowDTO> trees = treeRepository
+            .findRowsAfter(cursor, KeysetPaginationUtil.limit(pageSize))
+            .stream()
+            .map(tree -> new TreeRowDTO(tree.getId(), tree.getTrees(), tree.getAssignedToId(), tree.getAssignedToLogin()))
+            .collect(Collectors.toList());
+        return KeysetPaginationUtil.page(trees, pageSize, TreeRowDTO::getId);
+    }
+
+    /**
+     * {@code GET  /trees/me} : get all the trees of the current user, in id order.
+     * <p>
+     * The response varies on the {@code Accept} header, which can request the encoding of {@link ForestCodec} instead.
+     *
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @param response the response.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of trees in body,
+     * or with status {@code 304 (Not Modified)} if no tree of the current user changed,
+     * or with status {@code 401 (Unauthorized)} if the current user is not found.
+     */
+    @GetMapping("/trees/me")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TreeRowDTO>> getCurrentUserTrees(WebRequest webRequest, HttpServletResponse response) {
+        // Set before the tag is checked, so it is also sent with 304 (Not Modified).
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Long userId = getCurrentUserId();
+        log.debug("REST request to get the Trees of user : {}", userId);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Tree.class, userId))) {
+            return null;
+        }
+        TreeOwnerDTO owner = new TreeOwnerDTO(userId, SecurityUtils.getCurrentUserLogin().orElse(null));
+        List<TreeRowDTO> trees = treeRepository
+            .findIdsAndTypesByAssignedToId(userId)
+            .stream()
+            .map(tree -> new TreeRowDTO(tree.getId(), tree.getTrees(), owner))
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(trees);
+    }
+
+    /**
+     * {@code GET  /trees/me?format=compact} : get all the trees of the current user, encoded by {@link ForestCodec}.
+     * <p>
+     * The encoding is also returned when it is requested with an {@code Accept} header.
+     *
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @param response the response.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the encoded trees in body,
+     * or with status {@code 304 (Not Modified)} if no tree of the current user changed,
+     * or with status {@code 401 (Unauthorized)} if the current user is not found.
+     */
+    @GetMapping(value = "/trees/me", params = "format=compact")
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> getCurrentUserTreesCompact(WebRequest webRequest, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Long userId = getCurrentUserId();
+        log.debug("REST request to get the compact Trees of user : {}", userId);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Tree.class, userId) + "-compact")) {
+            return null;
         }
+        List<Tree> trees = treeRepository
+            .findIdsAndTypesByAssignedToId(userId)
+            .stream()
+            .map(tree -> new Tree().id(tree.getId()).trees(tree.getTrees()))
+            .collect(Collectors.toList());
+        return ResponseEntity.ok().contentType(ForestCodec.MEDIA_TYPE).body(ForestCodec.encode(trees));
+    }
+
+    /**
+     * {@code GET  /trees/me} accepting {@value ForestCodec#MEDIA_TYPE_VALUE} : get all the trees of the current user,
+     * encoded by {@link ForestCodec} as with {@code format=compact}.
+     *
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @param response the response.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the encoded trees in body,
+     * or with status {@code 304 (Not Modified)} if no tree of the current user changed,
+     * or with status {@code 401 (Unauthorized)} if the current user is not found.
+     */
+    @GetMapping(value = "/trees/me", produces = ForestCodec.MEDIA_TYPE_VALUE)
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> getCurrentUserTreesAccepting(WebRequest webRequest, HttpServletResponse response) {
+        return getCurrentUserTreesCompact(webRequest, response);
+    }
+
+    /**
+     * {@code GET  /trees/me/summary} : get the number of trees of the current user by type.
+     *
+     * @param webRequest the request, answered with {@code 304 (Not Modified)} if its {@code If-None-Match} tag is current.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary,
+     * or with status {@code 304 (Not Modified)} if no tree of the current user changed,
+     * or with status {@code 401 (Unauthorized)} if the current user is not found.
+     */
+    @GetMapping("/trees/me/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<TreeSummaryDTO> getCurrentUserTreeSummary(WebRequest webRequest) {
+        Long userId = getCurrentUserId();
+        log.debug("REST request to get the Tree summary of user : {}", userId);
+        if (entityVersionService.isEnabled() && webRequest.checkNotModified(entityVersionService.getTag(Tree.class, userId) + "-summary")) {
+            return null;
+        }
+        return ResponseEntity.ok(treeSummaryService.getSummary(userId));
     }
 
     /**
@@ -171,10 +321,25 @@ public class TreeResource {
     @DeleteMapping("/trees/{id}")
     public ResponseEntity<Void> deleteTree(@PathVariable Long id) {
         log.debug("REST request to delete Tree : {}", id);
+        treeRepository
+            .findById(id)
+            .ifPresent(tree -> {
+                treeSummaryService.removed(tree);
+                entityVersionService.changed(Tree.class, tree.getAssignedTo());
+            });
         treeRepository.deleteById(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    /**
+     * Gets the id of the current user from its token, or else from its login.
+     */
+    private Long getCurrentUserId() {
+        return userService
+            .getCurrentUserId()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Current user not found"));
+    }
 }
@@ -0,0 +1,103 @@
+package dev.rick.tree.web.rest.util;
+
+import dev.rick.tree.web.rest.errors.BadRequestAlertException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Utility class for keyset pagination on {@code id}.
+ * <p>
+ * A page holds the rows whose id follows the {@code after} cursor, in id order, so its cost does not depend on how deep
+ * it is. The cursor is opaque to clients, who follow the {@code next} link of the {@code Link} header.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 200;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Decodes the cursor of a page.
+     *
+     * @param after the cursor, or {@code null} for the first page.
+     * @param entityName the name of the paged entity, for the error.
+     * @return the id following which the page starts.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the cursor is invalid.
+     */
+    public static long decodeCursor(String after, String entityName) {
+        if (after == null || after.isEmpty()) {
+            return 0;
+        }
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            if (cursor.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(cursor.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Invalid Base64 or id, reported below.
+        }
+        throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+    }
+
+    public static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Caps the requested page size.
+     *
+     * @param size the requested size, or {@code null} for the default size.
+     * @return the page size, between 1 and {@link #MAX_SIZE}.
+     */
+    public static int pageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Gets the limit of the query of a page, one more row than the page size to know if there is a next page.
+     *
+     * @param size the page size.
+     * @return the pageable limiting the query.
+     */
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Builds the response of a page, with the {@code Link} header to the first and, if any, next pages.
+     *
+     * @param rows the rows fetched with {@link #limit(int)}, in id order.
+     * @param size the page size.
+     * @param id the id of a row.
+     * @param <T> the type of the rows.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page in body.
+     */
+    public static <T> ResponseEntity<List<T>> page(List<T> rows, int size, Function<T, Long> id) {
+        List<T> page = rows.size() > size ? rows.subList(0, size) : rows;
+        ServletUriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest();
+        uri.replaceQueryParam("size", size);
+        StringBuilder link = new StringBuilder();
+        if (rows.size() > size) {
+            String next = uri.replaceQueryParam("after", encodeCursor(id.apply(page.get(size - 1)))).toUriString();
+            link.append('<').append(next).append(">; rel=\"next\",");
+        }
+        link.append('<').append(uri.replaceQueryParam("after").toUriString()).append(">; rel=\"first\"");
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+}
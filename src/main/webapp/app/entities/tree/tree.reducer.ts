@@ -2,6 +2,8 @@ import axios from 'axios';
 import { createAsyncThunk, isFulfilled, isPending, isRejected } from '@reduxjs/toolkit';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getAllPages } from 'app/shared/util/keyset-pagination';
+import { KEYSET_PAGE_SIZE } from 'app/shared/util/pagination.constants';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { ITree, defaultValue } from 'app/shared/model/tree.model';
 
@@ -19,8 +21,8 @@ const apiUrl = 'api/trees';
 // Actions
 
 export const getEntities = createAsyncThunk('tree/fetch_entity_list', async ({ page, size, sort }: IQueryParams) => {
-  const requestUrl = `${apiUrl}?cacheBuster=${new Date().getTime()}`;
-  return axios.get<ITree[]>(requestUrl);
+  const requestUrl = `${apiUrl}?size=${KEYSET_PAGE_SIZE}&cacheBuster=${new Date().getTime()}`;
+  return getAllPages<ITree>(requestUrl);
 });
 
 export const getEntity = createAsyncThunk(
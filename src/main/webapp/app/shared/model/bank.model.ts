@@ -4,6 +4,7 @@ export interface IBank {
   id?: number;
   treesowned?: number | null;
   assignedTo?: IUser | null;
+  version?: number;
 }
 
 export const defaultValue: Readonly<IBank> = {};
@@ -2,4 +2,6 @@ export enum TimerStatus {
   Running = 'Running',
 
   Expired = 'Expired',
+
+  Completed = 'Completed',
 }
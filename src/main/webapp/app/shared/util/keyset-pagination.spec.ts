@@ -0,0 +1,33 @@
+import axios from 'axios';
+import sinon from 'sinon';
+
+import { getAllPages, getNextPageUrl } from './keyset-pagination';
+
+describe('Keyset pagination utils', () => {
+  describe('getNextPageUrl', () => {
+    it('should read the next link', () => {
+      const link = '<http://localhost/api/trees?size=2&after=aWQ6Mg>; rel="next",<http://localhost/api/trees?size=2>; rel="first"';
+
+      expect(getNextPageUrl({ headers: { link } } as any)).toEqual('http://localhost/api/trees?size=2&after=aWQ6Mg');
+    });
+
+    it('should return null on the last page', () => {
+      expect(getNextPageUrl({ headers: { link: '<http://localhost/api/trees?size=2>; rel="first"' } } as any)).toBeNull();
+      expect(getNextPageUrl({ headers: {} } as any)).toBeNull();
+    });
+  });
+
+  describe('getAllPages', () => {
+    it('should follow the next links', async () => {
+      const get = sinon.stub();
+      get.onFirstCall().returns(Promise.resolve({ data: [{ id: 1 }, { id: 2 }], headers: { link: '<next-page>; rel="next"' } }));
+      get.onSecondCall().returns(Promise.resolve({ data: [{ id: 3 }], headers: { link: '<first-page>; rel="first"' } }));
+      axios.get = get;
+
+      const response = await getAllPages('first-page');
+
+      expect(response.data).toEqual([{ id: 1 }, { id: 2 }, { id: 3 }]);
+      expect(get.secondCall.args[0]).toEqual('next-page');
+    });
+  });
+});
@@ -0,0 +1,33 @@
+import axios, { AxiosResponse } from 'axios';
+
+const NEXT_LINK = /<([^>]+)>;\s*rel="next"/;
+
+/**
+ * Gets the URL of the next page of a keyset paginated response.
+ *
+ * @param response The response, with its Link header.
+ * @returns The URL of the next page, or null on the last page.
+ */
+export const getNextPageUrl = (response: AxiosResponse): string | null => {
+  const link: string = response?.headers?.link;
+  const match = link ? NEXT_LINK.exec(link) : null;
+  return match ? match[1] : null;
+};
+
+/**
+ * Gets every page of a keyset paginated list, following the next link of each page.
+ *
+ * @param url The URL of the first page.
+ * @returns The response of the first page, with the rows of every page.
+ */
+export const getAllPages = async <T>(url: string): Promise<AxiosResponse<T[]>> => {
+  const first = await axios.get<T[]>(url);
+  let data = first.data;
+  let next = getNextPageUrl(first);
+  while (next) {
+    const page = await axios.get<T[]>(next);
+    data = data.concat(page.data);
+    next = getNextPageUrl(page);
+  }
+  return data === first.data ? first : { ...first, data };
+};
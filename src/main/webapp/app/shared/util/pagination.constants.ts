@@ -2,3 +2,4 @@ export const ITEMS_PER_PAGE = 20;
 export const ASC = 'asc';
 export const DESC = 'desc';
 export const SORT = 'sort';
+export const KEYSET_PAGE_SIZE = 200;
@@ -13,6 +13,8 @@ class SecurityMetersServiceTests {
 
     private static final String INVALID_TOKENS_METER_EXPECTED_NAME = "security.authentication.invalid-tokens";
 
+    private static final String RATE_LIMITED_METER_EXPECTED_NAME = "security.rate-limit.rejected";
+
     private MeterRegistry meterRegistry;
 
     private SecurityMetersService securityMetersService;
@@ -67,4 +69,19 @@ class SecurityMetersServiceTests {
 
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(1);
     }
+
+    @Test
+    void testRateLimitedCountersByKey() {
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "ip").counter().count()).isZero();
+
+        securityMetersService.trackRateLimitedByIp();
+
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "ip").counter().count()).isEqualTo(1);
+
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isZero();
+
+        securityMetersService.trackRateLimitedByLogin();
+
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isEqualTo(1);
+    }
 }
@@ -34,6 +34,24 @@ class SecurityUtilsUnitTest {
         assertThat(login).contains("admin");
     }
 
+    @Test
+    void testGetCurrentUserId() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        AuthenticatedUser principal = new AuthenticatedUser(42L, "admin", "", new ArrayList<>());
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(principal, "token"));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentUserId()).contains(42L);
+        assertThat(SecurityUtils.getCurrentUserLogin()).contains("admin");
+    }
+
+    @Test
+    void testGetCurrentUserIdWithoutId() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        SecurityContextHolder.setContext(securityContext);
+        assertThat(SecurityUtils.getCurrentUserId()).isEmpty();
+    }
+
     @Test
     void testGetCurrentUserJWT() {
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
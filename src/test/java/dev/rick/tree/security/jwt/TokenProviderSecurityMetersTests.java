@@ -2,6 +2,7 @@ package dev.rick.tree.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.rick.tree.config.ApplicationProperties;
 import dev.rick.tree.management.SecurityMetersService;
 import dev.rick.tree.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
@@ -43,7 +44,7 @@ class TokenProviderSecurityMetersTests {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(meterRegistry);
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
@@ -2,7 +2,9 @@ package dev.rick.tree.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import dev.rick.tree.config.ApplicationProperties;
 import dev.rick.tree.management.SecurityMetersService;
+import dev.rick.tree.security.AuthenticatedUser;
 import dev.rick.tree.security.AuthoritiesConstants;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -36,13 +38,68 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
         key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
 
         ReflectionTestUtils.setField(tokenProvider, "key", key);
         ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", ONE_MINUTE);
     }
 
+    @Test
+    void testTokenCarriesUserId() {
+        Collection<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        AuthenticatedUser user = new AuthenticatedUser(42L, "user", "password", authorities);
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(user, "password", authorities), false);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getId()).isEqualTo(42L);
+        assertThat(authentication.getName()).isEqualTo("user");
+    }
+
+    @Test
+    void testTokenWithoutUserId() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getId()).isNull();
+        assertThat(authentication.getName()).isEqualTo("anonymous");
+    }
+
+    @Test
+    void testResolveAuthenticationIsCached() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.resolveAuthentication(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getCredentials()).isEqualTo(token);
+        assertThat(tokenProvider.resolveAuthentication(token)).containsSame(authentication.get());
+    }
+
+    @Test
+    void testResolveAuthenticationRejectsExpiredToken() {
+        ReflectionTestUtils.setField(tokenProvider, "tokenValidityInMilliseconds", -ONE_MINUTE);
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+        assertThat(tokenProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    @Test
+    void testParseTokenReportsFailure() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.parseToken(token).isValid()).isTrue();
+        assertThat(tokenProvider.parseToken(token).getClaims().getSubject()).isEqualTo("anonymous");
+        assertThat(tokenProvider.parseToken(createTokenWithDifferentSignature()).getFailure())
+            .isEqualTo(TokenProvider.TokenFailure.INVALID_SIGNATURE);
+        assertThat(tokenProvider.parseToken("X" + token).getFailure()).isEqualTo(TokenProvider.TokenFailure.MALFORMED);
+    }
+
     @Test
     void testReturnFalseWhenJWThasInvalidSignature() {
         boolean isTokenValid = tokenProvider.validateToken(createTokenWithDifferentSignature());
@@ -96,7 +153,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
@@ -110,7 +167,7 @@ class TokenProviderTest {
 
         SecurityMetersService securityMetersService = new SecurityMetersService(new SimpleMeterRegistry());
 
-        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, securityMetersService);
+        TokenProvider tokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(), securityMetersService);
 
         Key key = (Key) ReflectionTestUtils.getField(tokenProvider, "key");
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
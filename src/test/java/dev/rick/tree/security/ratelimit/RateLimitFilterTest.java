@@ -0,0 +1,141 @@
+package dev.rick.tree.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+
+class RateLimitFilterTest {
+
+    private static final String RATE_LIMITED_METER_EXPECTED_NAME = "security.rate-limit.rejected";
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Security.RateLimit.Route route = new ApplicationProperties.Security.RateLimit.Route();
+        route.setPattern("/api/authenticate");
+        route.setMethods(List.of("POST"));
+        route.setCapacity(2);
+        route.setRefillPerSecond(0.01);
+        route.setLoginField("username");
+        ApplicationProperties.Security.RateLimit rateLimit = new ApplicationProperties.Security.RateLimit();
+        rateLimit.setRoutes(List.of(route));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(rateLimit, new SecurityMetersService(meterRegistry), new ObjectMapper());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRequestsAreLimitedByIp() throws Exception {
+        assertThat(authenticate("10.0.0.1", "user-1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("10.0.0.1", "user-2").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = authenticate("10.0.0.1", "user-3");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "ip").counter().count()).isEqualTo(1);
+        assertThat(authenticate("10.0.0.2", "user-3").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testRequestsAreLimitedByLogin() throws Exception {
+        assertThat(authenticate("10.0.0.1", "user").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(authenticate("10.0.0.2", "USER").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = authenticate("10.0.0.3", "user");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(meterRegistry.get(RATE_LIMITED_METER_EXPECTED_NAME).tag("key", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testOtherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/authenticate");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            rateLimitFilter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    void testBodyCanBeReadWithAReadListener() throws Exception {
+        String body = "{\"username\":\"user\",\"password\":\"password\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        rateLimitFilter.doFilter(
+            request,
+            new MockHttpServletResponse(),
+            (filteredRequest, filteredResponse) -> {
+                ServletInputStream in = filteredRequest.getInputStream();
+                in.setReadListener(
+                    new ReadListener() {
+                        @Override
+                        public void onDataAvailable() throws IOException {
+                            while (in.isReady() && !in.isFinished()) {
+                                read.write(in.read());
+                            }
+                        }
+
+                        @Override
+                        public void onAllDataRead() {
+                            allRead.set(true);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {}
+                    }
+                );
+            }
+        );
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(allRead).isTrue();
+    }
+
+    private MockHttpServletResponse authenticate(String ip, String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"password\"}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setRemoteAddr(ip);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(
+            request,
+            response,
+            (filteredRequest, filteredResponse) ->
+                // The body is still readable after the login was read from it.
+                assertThat(StreamUtils.copyToString(filteredRequest.getInputStream(), StandardCharsets.UTF_8)).isEqualTo(body)
+        );
+        return response;
+    }
+}
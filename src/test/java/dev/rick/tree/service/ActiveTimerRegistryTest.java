@@ -0,0 +1,79 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ActiveTimerRegistry} service.
+ */
+class ActiveTimerRegistryTest {
+
+    private ActiveTimerRegistry registry;
+
+    @BeforeEach
+    public void setup() {
+        registry = new ActiveTimerRegistry();
+    }
+
+    @Test
+    void testRunningTimerIsServedByIdAndByUser() {
+        Timer timer = registry.put(runningTimer(1L, 10L, ZonedDateTime.now().plusMinutes(25)));
+
+        assertThat(registry.get(1L)).containsSame(timer);
+        assertThat(registry.getByUserId(10L)).containsSame(timer);
+        assertThat(timer.getAssignedTo().getLogin()).isEqualTo("user-10");
+        assertThat(timer.getStatus()).isEqualTo(TimerStatus.Running);
+    }
+
+    @Test
+    void testPutStoresDetachedSnapshot() {
+        Timer timer = runningTimer(1L, 10L, ZonedDateTime.now().plusMinutes(25));
+        registry.put(timer);
+
+        timer.setDuration(5);
+
+        assertThat(registry.get(1L)).map(Timer::getDuration).contains(25);
+    }
+
+    @Test
+    void testExpiredTimerIsNotServed() {
+        registry.put(runningTimer(1L, 10L, ZonedDateTime.now().minusSeconds(1)));
+
+        assertThat(registry.get(1L)).isEmpty();
+        assertThat(registry.getByUserId(10L)).isEmpty();
+    }
+
+    @Test
+    void testRemoveUnregistersBothIndexes() {
+        registry.put(runningTimer(1L, 10L, ZonedDateTime.now().plusMinutes(25)));
+
+        assertThat(registry.remove(1L)).isPresent();
+
+        assertThat(registry.get(1L)).isEmpty();
+        assertThat(registry.getByUserId(10L)).isEmpty();
+        assertThat(registry.remove(1L)).isEmpty();
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    void testReassignedTimerMovesToNewOwner() {
+        registry.put(runningTimer(1L, 10L, ZonedDateTime.now().plusMinutes(25)));
+        registry.put(runningTimer(1L, 11L, ZonedDateTime.now().plusMinutes(25)));
+
+        assertThat(registry.getByUserId(10L)).isEmpty();
+        assertThat(registry.getByUserId(11L)).map(Timer::getId).contains(1L);
+    }
+
+    private static Timer runningTimer(Long id, Long userId, ZonedDateTime expirationTime) {
+        User user = new User();
+        user.setId(userId);
+        user.setLogin("user-" + userId);
+        return new Timer().id(id).duration(25).expirationTime(expirationTime).status(TimerStatus.Running).assignedTo(user);
+    }
+}
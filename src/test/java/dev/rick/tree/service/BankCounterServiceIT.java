@@ -0,0 +1,180 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.BankLedgerRepository;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link BankCounterService}.
+ */
+@IntegrationTest
+@Transactional
+class BankCounterServiceIT {
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private BankCounterService bankCounterService;
+
+    @Autowired
+    private BankLedgerRepository bankLedgerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void assertThatPendingDeltasAreReadAndFlushed() {
+        Bank bank = bankRepository.saveAndFlush(new Bank().treesowned(5));
+        Bank other = bankRepository.saveAndFlush(new Bank().treesowned(1));
+
+        bankCounterService.add(bank.getId(), 1);
+        bankCounterService.add(bank.getId(), 2);
+        bankCounterService.add(other.getId(), 3);
+
+        assertThat(bankCounterService.withPending(bank).getTreesowned()).isEqualTo(8);
+        assertThat(bank.getTreesowned()).isEqualTo(5);
+
+        // Both banks have a pending delta of 3 and share a bulk update
+        assertThat(bankCounterService.flush()).isEqualTo(2);
+        em.clear();
+
+        assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(8);
+        assertThat(bankRepository.findById(other.getId())).map(Bank::getTreesowned).contains(4);
+        assertThat(bankCounterService.getPending(bank.getId())).isZero();
+        assertThat(bankCounterService.flush()).isZero();
+
+        // The flushed adders were dropped, a new credit gets a new one
+        bankCounterService.add(bank.getId(), 2);
+        assertThat(bankCounterService.getPending(bank.getId())).isEqualTo(2);
+        assertThat(bankCounterService.flush()).isEqualTo(1);
+        em.clear();
+
+        assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(10);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatConcurrentCreditsAndFlushesLoseNoTrees() throws Exception {
+        Bank bank = bankRepository.saveAndFlush(new Bank().treesowned(0));
+        int threads = 4;
+        int creditsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> credits = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                credits.add(
+                    executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < creditsPerThread; j++) {
+                            bankCounterService.add(bank.getId(), 1);
+                        }
+                        return null;
+                    })
+                );
+            }
+            // Flushes run alongside the credits, so idle adders are dropped while the bank is credited.
+            AtomicBoolean crediting = new AtomicBoolean(true);
+            Future<?> flushes = executor.submit(() -> {
+                start.await();
+                while (crediting.get()) {
+                    bankCounterService.flush();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> future : credits) {
+                future.get();
+            }
+            crediting.set(false);
+            flushes.get();
+            bankCounterService.flush();
+
+            assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(threads * creditsPerThread);
+            assertThat(bankCounterService.getPending(bank.getId())).isZero();
+        } finally {
+            executor.shutdownNow();
+            bankRepository.deleteById(bank.getId());
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatConcurrentFirstCreditsCreateASingleBank() throws Exception {
+        User user = new User();
+        user.setLogin("first-credit-user");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("first-credit-user@localhost");
+        user.setLangKey("en");
+        User saved = userRepository.saveAndFlush(user);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        return transactionTemplate.execute(status -> bankCounterService.credit(saved, 1));
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            assertThat(bankRepository.findTreesownedByAssignedToId(saved.getId())).contains(threads);
+        } finally {
+            executor.shutdownNow();
+            bankRepository
+                .findIdByAssignedToId(saved.getId())
+                .ifPresent(bankId -> {
+                    bankRepository.deleteById(bankId);
+                    leaderboardService.removeBank(bankId);
+                });
+            bankLedgerRepository.deleteAll(
+                bankLedgerRepository
+                    .findAll()
+                    .stream()
+                    .filter(entry -> saved.getId().equals(entry.getUserId()))
+                    .collect(Collectors.toList())
+            );
+            userRepository.deleteById(saved.getId());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.BankLedgerEntry;
+import dev.rick.tree.domain.BankSnapshot;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.BankLedgerRepository;
+import dev.rick.tree.repository.BankSnapshotRepository;
+import dev.rick.tree.repository.UserRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link BankLedgerService}.
+ */
+@IntegrationTest
+@Transactional
+class BankLedgerServiceIT {
+
+    private static final long USER_ID = 1_000_001L;
+
+    private static final long OTHER_USER_ID = 1_000_002L;
+
+    @Autowired
+    private BankLedgerService bankLedgerService;
+
+    @Autowired
+    private BankLedgerRepository bankLedgerRepository;
+
+    @Autowired
+    private BankSnapshotRepository bankSnapshotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void assertThatBalancesAreReadFromSnapshotsAndEntries() {
+        Instant before = Instant.now().minusSeconds(60);
+        for (int i = 0; i < 150; i++) {
+            bankLedgerService.earn(USER_ID, 2);
+        }
+        bankLedgerService.snapshot(Instant.now().plusSeconds(1));
+        bankLedgerService.spend(USER_ID, 5);
+
+        assertThat(bankSnapshotRepository.findFirstByUserIdOrderBySeqDesc(USER_ID))
+            .map(BankSnapshot::getTreesowned)
+            .contains(300L);
+        assertThat(bankLedgerService.getBalance(USER_ID)).isEqualTo(295);
+        assertThat(bankLedgerService.getBalance(USER_ID, Instant.now().plusSeconds(60))).isEqualTo(295);
+        assertThat(bankLedgerService.getBalance(USER_ID, before)).isZero();
+    }
+
+    @Test
+    void assertThatRecentEntriesAreLeftForALaterSnapshot() {
+        bankLedgerService.earn(USER_ID, 4);
+        bankLedgerService.snapshot(Instant.now().plusSeconds(1));
+        bankLedgerService.earn(USER_ID, 3);
+
+        bankLedgerService.snapshot(Instant.now().minusSeconds(60));
+
+        assertThat(bankSnapshotRepository.findFirstByUserIdOrderBySeqDesc(USER_ID))
+            .map(BankSnapshot::getTreesowned)
+            .contains(4L);
+        assertThat(bankLedgerService.getBalance(USER_ID)).isEqualTo(7);
+
+        bankLedgerService.snapshot(Instant.now().plusSeconds(1));
+
+        assertThat(bankSnapshotRepository.findFirstByUserIdOrderBySeqDesc(USER_ID))
+            .map(BankSnapshot::getTreesowned)
+            .contains(7L);
+        assertThat(bankLedgerService.getBalance(USER_ID)).isEqualTo(7);
+    }
+
+    @Test
+    void assertThatAdjustmentsFollowTheOwnerOfTheBank() {
+        bankLedgerService.adjust(null, 0, USER_ID, 10);
+        bankLedgerService.adjust(USER_ID, 10, USER_ID, 7);
+        bankLedgerService.adjust(USER_ID, 7, OTHER_USER_ID, 8);
+
+        assertThat(bankLedgerService.getBalance(USER_ID)).isZero();
+        assertThat(bankLedgerService.getBalance(OTHER_USER_ID)).isEqualTo(8);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void assertThatConcurrentEntriesAreNumberedUniquely() throws Exception {
+        User user = new User();
+        user.setLogin("ledger-user");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("ledger-user@localhost");
+        user.setLangKey("en");
+        Long userId = userRepository.saveAndFlush(user).getId();
+        int threads = 8;
+        int entriesPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // All threads start together, so the first entries of the user race as well.
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < entriesPerThread; j++) {
+                            bankLedgerService.earn(userId, 1);
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            List<Long> seqs = userEntries(userId).stream().map(BankLedgerEntry::getSeq).collect(Collectors.toList());
+            assertThat(seqs).hasSize(threads * entriesPerThread).doesNotHaveDuplicates();
+            assertThat(bankLedgerService.getBalance(userId)).isEqualTo(threads * entriesPerThread);
+
+            bankLedgerService.snapshot(Instant.now().plusSeconds(1));
+
+            assertThat(bankLedgerService.getBalance(userId)).isEqualTo(threads * entriesPerThread);
+            assertThat(bankSnapshotRepository.findFirstByUserIdOrderBySeqDesc(userId))
+                .map(BankSnapshot::getTreesowned)
+                .contains(200L);
+        } finally {
+            executor.shutdownNow();
+            bankLedgerRepository.deleteAll(userEntries(userId));
+            bankSnapshotRepository.deleteAll(
+                bankSnapshotRepository
+                    .findAll()
+                    .stream()
+                    .filter(snapshot -> userId.equals(snapshot.getUserId()))
+                    .collect(Collectors.toList())
+            );
+            userRepository.deleteById(userId);
+        }
+    }
+
+    private List<BankLedgerEntry> userEntries(Long userId) {
+        return bankLedgerRepository.findAll().stream().filter(entry -> userId.equals(entry.getUserId())).collect(Collectors.toList());
+    }
+}
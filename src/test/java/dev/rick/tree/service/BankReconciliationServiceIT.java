@@ -0,0 +1,139 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.BankLedgerRepository;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.BankSnapshotRepository;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.BankDiscrepancyDTO;
+import dev.rick.tree.service.dto.BankReconciliationDTO;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link BankReconciliationService}.
+ * <p>
+ * Ranges are checked in their own transactions on other threads, so the rows are committed and removed afterwards.
+ */
+@IntegrationTest
+class BankReconciliationServiceIT {
+
+    @Autowired
+    private BankReconciliationService bankReconciliationService;
+
+    @Autowired
+    private BankLedgerService bankLedgerService;
+
+    @Autowired
+    private BankRepository bankRepository;
+
+    @Autowired
+    private BankLedgerRepository bankLedgerRepository;
+
+    @Autowired
+    private BankSnapshotRepository bankSnapshotRepository;
+
+    @Autowired
+    private TreeRepository treeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    private Bank bank;
+
+    private List<Tree> trees;
+
+    @BeforeEach
+    public void init() {
+        user = new User();
+        user.setLogin("reconciliation-user");
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail("reconciliation-user@localhost");
+        user.setLangKey("en");
+        user = userRepository.saveAndFlush(user);
+        trees =
+            treeRepository.saveAllAndFlush(
+                List.of(
+                    new Tree().trees(TreeType.Dogwood).assignedTo(user),
+                    new Tree().trees(TreeType.Willow).assignedTo(user),
+                    new Tree().assignedTo(user)
+                )
+            );
+        bank = bankRepository.saveAndFlush(new Bank().treesowned(1).assignedTo(user));
+        // The ledger holds the trees of the user, which the bank lost.
+        bankLedgerService.earn(user.getId(), 3);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        bankLedgerRepository.deleteAll(
+            bankLedgerRepository.findAll().stream().filter(entry -> user.getId().equals(entry.getUserId())).collect(Collectors.toList())
+        );
+        bankSnapshotRepository.deleteAll(
+            bankSnapshotRepository
+                .findAll()
+                .stream()
+                .filter(snapshot -> user.getId().equals(snapshot.getUserId()))
+                .collect(Collectors.toList())
+        );
+        bankRepository.deleteById(bank.getId());
+        treeRepository.deleteAll(trees);
+        userRepository.delete(user);
+    }
+
+    @Test
+    void assertThatDiscrepanciesAreReportedWithoutRepair() {
+        BankReconciliationDTO result = bankReconciliationService.reconcile(false).orElseThrow();
+
+        assertThat(result.getReported())
+            .filteredOn(discrepancy -> user.getId().equals(discrepancy.getUserId()))
+            .extracting(BankDiscrepancyDTO::getBankId, BankDiscrepancyDTO::getTreesowned, BankDiscrepancyDTO::getTrees)
+            .containsExactly(tuple(bank.getId(), 1L, 3L));
+        assertThat(result.getRepaired()).isZero();
+        assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(1);
+        assertThat(bankReconciliationService.getProgress()).isEqualTo(1.0);
+    }
+
+    @Test
+    void assertThatDiscrepanciesAreRepaired() {
+        BankReconciliationDTO result = bankReconciliationService.reconcile(true).orElseThrow();
+
+        assertThat(result.getRepaired()).isPositive();
+        assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(3);
+        assertThat(bankLedgerService.getBalance(user.getId())).isEqualTo(3);
+        assertThat(bankReconciliationService.reconcile(false).orElseThrow().getReported())
+            .extracting(BankDiscrepancyDTO::getUserId)
+            .doesNotContain(user.getId());
+    }
+
+    @Test
+    void assertThatBanksMatchingTheLedgerAreNotRepaired() {
+        // The user spent trees, so the bank owns fewer trees than the user but matches the ledger.
+        bankLedgerService.spend(user.getId(), 2);
+
+        BankReconciliationDTO result = bankReconciliationService.reconcile(true).orElseThrow();
+
+        assertThat(result.getReported())
+            .filteredOn(discrepancy -> user.getId().equals(discrepancy.getUserId()))
+            .extracting(BankDiscrepancyDTO::getBankId)
+            .containsExactly(bank.getId());
+        assertThat(bankRepository.findById(bank.getId())).map(Bank::getTreesowned).contains(1);
+        assertThat(bankLedgerService.getBalance(user.getId())).isEqualTo(1);
+    }
+}
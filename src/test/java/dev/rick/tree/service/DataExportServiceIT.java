@@ -0,0 +1,76 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link DataExportService}.
+ */
+@IntegrationTest
+@Transactional
+class DataExportServiceIT {
+
+    @Autowired
+    private TreeRepository treeRepository;
+
+    @Autowired
+    private TimerRepository timerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void assertThatTreesAreExportedAsCsv() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Tree owned = treeRepository.saveAndFlush(new Tree().trees(TreeType.Willow).assignedTo(user));
+        Tree unowned = treeRepository.saveAndFlush(new Tree().trees(TreeType.Palm));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = dataExportService.exportTrees(DataFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize((int) count + 1);
+        assertThat(lines.get(0)).isEqualTo("id,trees,assigned_to_id,assigned_to_login");
+        assertThat(lines).contains(owned.getId() + ",Willow," + user.getId() + ",user", unowned.getId() + ",Palm,,");
+    }
+
+    @Test
+    void assertThatTimersAreExportedAsNdjson() throws Exception {
+        Timer timer = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now()).status(TimerStatus.Expired)
+        );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = dataExportService.exportTimers(DataFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize((int) count);
+        JsonNode last = objectMapper.readTree(lines.get(lines.size() - 1));
+        assertThat(last.get("id").asLong()).isEqualTo(timer.getId());
+        assertThat(last.get("status").asText()).isEqualTo("Expired");
+    }
+}
@@ -0,0 +1,78 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TreeType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link ForestCodec} utility class.
+ */
+class ForestCodecTest {
+
+    @Test
+    void testDecodeReturnsEncodedTrees() {
+        List<Tree> trees = List.of(
+            new Tree().id(1_050L).trees(TreeType.Willow),
+            new Tree().id(1_051L).trees(null),
+            new Tree().id(300_000L).trees(TreeType.Evergreen)
+        );
+
+        List<Tree> decoded = ForestCodec.decode(ForestCodec.encode(trees));
+
+        assertThat(decoded)
+            .extracting(Tree::getId, Tree::getTrees)
+            .containsExactly(tuple(1_050L, TreeType.Willow), tuple(1_051L, null), tuple(300_000L, TreeType.Evergreen));
+    }
+
+    @Test
+    void testEncodeEmptyForest() {
+        byte[] bytes = ForestCodec.encode(List.of());
+
+        assertThat(bytes).isEqualTo(new byte[] { ForestCodec.VERSION, 0 });
+        assertThat(ForestCodec.decode(bytes)).isEmpty();
+    }
+
+    @Test
+    void testEncodingIsTenTimesSmallerThanJson() throws Exception {
+        User user = new User();
+        user.setId(2L);
+        user.setLogin("user");
+        List<Tree> trees = new ArrayList<>();
+        for (long id = 1_050; id < 11_050; id++) {
+            trees.add(new Tree().id(id).trees(TreeType.values()[(int) (id % TreeType.values().length)]).assignedTo(user));
+        }
+
+        byte[] compact = ForestCodec.encode(trees);
+        byte[] json = new ObjectMapper().writeValueAsBytes(trees);
+
+        assertThat(compact.length * 10).isLessThan(json.length);
+        assertThat(ForestCodec.decode(compact))
+            .extracting(Tree::getId)
+            .containsExactlyElementsOf(trees.stream().map(Tree::getId).toList());
+    }
+
+    @Test
+    void testEncodeRejectsUnorderedIds() {
+        List<Tree> trees = List.of(new Tree().id(2L), new Tree().id(1L));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> ForestCodec.encode(trees));
+    }
+
+    @Test
+    void testDecodeRejectsInvalidBytes() {
+        byte[] bytes = ForestCodec.encode(List.of(new Tree().id(1L).trees(TreeType.Pine)));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> ForestCodec.decode(new byte[] { 2, 0 }));
+        assertThatIllegalArgumentException().isThrownBy(() -> ForestCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThatIllegalArgumentException().isThrownBy(() -> ForestCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+}
@@ -0,0 +1,77 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.LeaderboardEntryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LeaderboardService} service.
+ */
+class LeaderboardServiceTest {
+
+    private BankRepository bankRepository;
+
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getLeaderboard().setRebuildPageSize(1);
+        bankRepository = mock(BankRepository.class);
+        leaderboardService =
+            new LeaderboardService(bankRepository, mock(UserRepository.class), applicationProperties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testRebuildRanksAllBanks() {
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(0L), any())).thenReturn(List.of(bank(1L, 11L, "first", 5)));
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(1L), any())).thenReturn(List.of(bank(2L, 12L, "second", 7)));
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(2L), any())).thenReturn(List.of());
+
+        assertThat(leaderboardService.rebuild()).isEqualTo(2);
+
+        assertThat(leaderboardService.getTop(10)).extracting(LeaderboardEntryDTO::getLogin).containsExactly("second", "first");
+    }
+
+    @Test
+    void testChangesCommittedDuringRebuildAreKept() {
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(0L), any())).thenReturn(List.of(bank(1L, 11L, "first", 5)));
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(1L), any()))
+            .thenAnswer(invocation -> {
+                // Committed once the first bank was read: the rebuild reads the new bank, but not the credit.
+                leaderboardService.adjustBank(1L, 10);
+                leaderboardService.set(bank(2L, 12L, "second", 7));
+                return List.of(bank(2L, 12L, "second", 7));
+            });
+        when(bankRepository.findAllWithEagerRelationshipsAfter(eq(2L), any()))
+            .thenAnswer(invocation -> {
+                leaderboardService.adjustBank(2L, 1);
+                return List.of();
+            });
+
+        leaderboardService.rebuild();
+
+        assertThat(leaderboardService.getEntry("first")).map(LeaderboardEntryDTO::getTreesowned).contains(15L);
+        assertThat(leaderboardService.getEntry("second")).map(LeaderboardEntryDTO::getTreesowned).contains(8L);
+    }
+
+    private static Bank bank(long bankId, long userId, String login, int treesowned) {
+        User user = new User();
+        user.setId(userId);
+        user.setLogin(login);
+        return new Bank().id(bankId).treesowned(treesowned).assignedTo(user);
+    }
+}
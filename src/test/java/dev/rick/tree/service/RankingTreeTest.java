@@ -0,0 +1,116 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link RankingTree} utility class.
+ */
+class RankingTreeTest {
+
+    private RankingTree tree;
+
+    @BeforeEach
+    public void setup() {
+        tree = new RankingTree();
+    }
+
+    @Test
+    void testEntriesAreRankedByDescendingScoreThenId() {
+        tree.put(1L, 10);
+        tree.put(2L, 30);
+        tree.put(3L, 20);
+        tree.put(4L, 30);
+
+        assertThat(top(10)).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(tree.rank(2L)).isEqualTo(1);
+        assertThat(tree.rank(4L)).isEqualTo(1);
+        assertThat(tree.rank(3L)).isEqualTo(3);
+        assertThat(tree.rank(1L)).isEqualTo(4);
+        assertThat(tree.countBelow(20)).isEqualTo(1);
+    }
+
+    @Test
+    void testPutReplacesPreviousScore() {
+        tree.put(1L, 10);
+        tree.put(2L, 20);
+
+        tree.put(1L, 30);
+
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.score(1L)).isEqualTo(30L);
+        assertThat(top(10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testAddStartsFromZero() {
+        assertThat(tree.add(1L, 5)).isEqualTo(5);
+        assertThat(tree.add(1L, -2)).isEqualTo(3);
+        assertThat(tree.score(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    void testRemovedEntryIsNotRanked() {
+        tree.put(1L, 10);
+        tree.put(2L, 20);
+
+        assertThat(tree.remove(2L)).isTrue();
+        assertThat(tree.remove(2L)).isFalse();
+
+        assertThat(tree.contains(2L)).isFalse();
+        assertThat(tree.rank(2L)).isZero();
+        assertThat(tree.rank(1L)).isEqualTo(1);
+        assertThat(top(10)).containsExactly(1L);
+    }
+
+    @Test
+    void testTopIsLimited() {
+        for (long id = 1; id <= 100; id++) {
+            tree.put(id, id);
+        }
+
+        assertThat(top(3)).containsExactly(100L, 99L, 98L);
+        assertThat(top(0)).isEmpty();
+    }
+
+    @Test
+    void testRandomOperationsMatchSortedList() {
+        Random random = new Random(42);
+        Map<Long, Long> scores = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                tree.remove(id);
+                scores.remove(id);
+            } else {
+                long score = random.nextInt(50);
+                tree.put(id, score);
+                scores.put(id, score);
+            }
+        }
+
+        List<Long> expected = new ArrayList<>(scores.keySet());
+        expected.sort(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id));
+        assertThat(top(scores.size() + 1)).containsExactlyElementsOf(expected);
+        for (Map.Entry<Long, Long> entry : scores.entrySet()) {
+            int above = (int) scores.values().stream().filter(score -> score > entry.getValue()).count();
+            int below = (int) scores.values().stream().filter(score -> score < entry.getValue()).count();
+            assertThat(tree.rank(entry.getKey())).isEqualTo(above + 1);
+            assertThat(tree.countBelow(entry.getValue())).isEqualTo(below);
+        }
+    }
+
+    private List<Long> top(int limit) {
+        List<Long> ids = new ArrayList<>();
+        tree.forEachTop(limit, (id, score) -> ids.add(id));
+        return ids;
+    }
+}
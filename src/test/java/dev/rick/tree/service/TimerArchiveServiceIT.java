@@ -0,0 +1,58 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.TimerHistory;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.repository.TimerHistoryRepository;
+import dev.rick.tree.repository.TimerRepository;
+import java.time.ZonedDateTime;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TimerArchiveService}.
+ */
+@IntegrationTest
+@Transactional
+class TimerArchiveServiceIT {
+
+    @Autowired
+    private TimerRepository timerRepository;
+
+    @Autowired
+    private TimerHistoryRepository timerHistoryRepository;
+
+    @Autowired
+    private TimerArchiveService timerArchiveService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void assertThatOldFinishedTimersAreArchived() {
+        Timer old = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().minusDays(60)).status(TimerStatus.Completed)
+        );
+        Timer oldRunning = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().minusDays(60)).status(TimerStatus.Running)
+        );
+        Timer recent = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().minusDays(1)).status(TimerStatus.Expired)
+        );
+        em.clear();
+
+        assertThat(timerArchiveService.archiveFinishedTimers()).isEqualTo(1);
+        em.clear();
+
+        assertThat(timerRepository.findById(old.getId())).isEmpty();
+        assertThat(timerHistoryRepository.findById(old.getId())).map(TimerHistory::getStatus).contains(TimerStatus.Completed);
+        assertThat(timerRepository.findById(oldRunning.getId())).isPresent();
+        assertThat(timerRepository.findById(recent.getId())).isPresent();
+        assertThat(timerArchiveService.archiveFinishedTimers()).isZero();
+    }
+}
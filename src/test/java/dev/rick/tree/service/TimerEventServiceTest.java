@@ -0,0 +1,101 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link TimerEventService} service.
+ */
+class TimerEventServiceTest {
+
+    private static final Long USER_ID = 10L;
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TimerEventService timerEventService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTimer().getEvents().setSubscriberQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+        timerEventService = new TimerEventService(new ActiveTimerRegistry(), tasks::add, applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void testEventsAreDeliveredOnTheExecutor() {
+        List<TimerEventDTO> received = new ArrayList<>();
+        timerEventService.subscribe(USER_ID, received::add, () -> {});
+
+        timerEventService.publish(USER_ID, event(1L));
+        timerEventService.publish(USER_ID, event(2L));
+
+        assertThat(received).isEmpty();
+        assertThat(tasks).hasSize(1);
+        runTasks();
+        assertThat(received).extracting(TimerEventDTO::getTimerId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testSubscriberFallingBehindIsDropped() {
+        List<TimerEventDTO> received = new ArrayList<>();
+        AtomicInteger dropped = new AtomicInteger();
+        timerEventService.subscribe(USER_ID, received::add, dropped::incrementAndGet);
+
+        timerEventService.publish(USER_ID, event(1L));
+        timerEventService.publish(USER_ID, event(2L));
+        timerEventService.publish(USER_ID, event(3L));
+        runTasks();
+        timerEventService.publish(USER_ID, event(4L));
+        runTasks();
+
+        assertThat(dropped).hasValue(1);
+        assertThat(received).isEmpty();
+        assertThat(meterRegistry.get("timer.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("timer.events.subscribers").gauge().value()).isZero();
+    }
+
+    @Test
+    void testFailingSubscriberIsDropped() {
+        AtomicInteger calls = new AtomicInteger();
+        timerEventService.subscribe(
+            USER_ID,
+            event -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("closed");
+            },
+            () -> {}
+        );
+
+        timerEventService.publish(USER_ID, event(1L));
+        runTasks();
+        timerEventService.publish(USER_ID, event(2L));
+        runTasks();
+
+        assertThat(calls).hasValue(1);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static TimerEventDTO event(Long timerId) {
+        return new TimerEventDTO(TimerEventDTO.Type.STARTED, timerId, ZonedDateTime.now().plusMinutes(25), 1000L);
+    }
+}
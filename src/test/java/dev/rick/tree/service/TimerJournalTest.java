@@ -0,0 +1,115 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.config.ApplicationProperties;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link TimerJournal} service.
+ */
+class TimerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        path = directory.resolve("timer.journal");
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getTimer().getJournal().setEnabled(true);
+        applicationProperties.getTimer().getJournal().setPath(path.toString());
+        applicationProperties.getTimer().getJournal().setSizeBytes(TimerJournal.HEADER_SIZE + 5 * TimerJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void testMissingJournalIsNotReplayed() {
+        TimerJournal journal = new TimerJournal(applicationProperties, new ActiveTimerRegistry());
+
+        assertThat(journal.replay()).isEmpty();
+        journal.close();
+    }
+
+    @Test
+    void testRunningTimersAreReplayed() {
+        ActiveTimerRegistry registry = new ActiveTimerRegistry();
+        TimerJournal journal = new TimerJournal(applicationProperties, registry);
+        journal.started(registry.put(runningTimer(1L, 10L)));
+        journal.started(registry.put(runningTimer(2L, 11L)));
+        journal.ended(1L, TimerEventDTO.Type.COMPLETED);
+        journal.close();
+
+        List<Timer> replayed = reopen();
+
+        assertThat(replayed).extracting(Timer::getId).containsExactly(2L);
+        assertThat(replayed.get(0).getAssignedTo().getLogin()).isEqualTo("user-11");
+        assertThat(replayed.get(0).getDuration()).isEqualTo(25);
+        assertThat(replayed.get(0).getStatus()).isEqualTo(TimerStatus.Running);
+    }
+
+    @Test
+    void testFullJournalIsCompacted() {
+        ActiveTimerRegistry registry = new ActiveTimerRegistry();
+        TimerJournal journal = new TimerJournal(applicationProperties, registry);
+        journal.started(registry.put(runningTimer(1L, 10L)));
+        for (long id = 100; id < 106; id++) {
+            journal.started(registry.put(runningTimer(id, id)));
+            registry.remove(id);
+            journal.ended(id, TimerEventDTO.Type.CANCELLED);
+        }
+        journal.close();
+
+        assertThat(reopen()).extracting(Timer::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testReplayStopsAtTornRecord() throws IOException {
+        ActiveTimerRegistry registry = new ActiveTimerRegistry();
+        TimerJournal journal = new TimerJournal(applicationProperties, registry);
+        journal.started(registry.put(runningTimer(1L, 10L)));
+        journal.started(registry.put(runningTimer(2L, 11L)));
+        journal.close();
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[TimerJournal.HEADER_SIZE + TimerJournal.RECORD_SIZE + 8] ^= 1;
+        Files.write(path, bytes);
+
+        assertThat(reopen()).extracting(Timer::getId).containsExactly(1L);
+    }
+
+    private List<Timer> reopen() {
+        TimerJournal journal = new TimerJournal(applicationProperties, new ActiveTimerRegistry());
+        try {
+            return journal.replay().orElseThrow();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static Timer runningTimer(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        user.setLogin("user-" + userId);
+        return new Timer()
+            .id(id)
+            .duration(25)
+            .expirationTime(ZonedDateTime.now().plusMinutes(25))
+            .status(TimerStatus.Running)
+            .assignedTo(user);
+    }
+}
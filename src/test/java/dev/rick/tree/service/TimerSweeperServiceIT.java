@@ -0,0 +1,68 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.repository.TimerRepository;
+import java.time.ZonedDateTime;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TimerSweeperService}.
+ */
+@IntegrationTest
+@Transactional
+class TimerSweeperServiceIT {
+
+    @Autowired
+    private TimerRepository timerRepository;
+
+    @Autowired
+    private TimerSweeperService timerSweeperService;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    void assertThatOverdueRunningTimersAreExpired() {
+        Timer overdue = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().minusMinutes(5)).status(TimerStatus.Running)
+        );
+        Timer pending = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().plusMinutes(5)).status(TimerStatus.Running)
+        );
+        em.clear();
+
+        assertThat(timerSweeperService.sweepOverdueTimers()).isEqualTo(1);
+        em.clear();
+
+        assertThat(timerRepository.findById(overdue.getId())).map(Timer::getStatus).contains(TimerStatus.Expired);
+        assertThat(timerRepository.findById(pending.getId())).map(Timer::getStatus).contains(TimerStatus.Running);
+        assertThat(timerSweeperService.sweepOverdueTimers()).isZero();
+    }
+
+    @Test
+    void assertThatTimersRestartedSinceTheyWereFoundOverdueAreNotExpired() {
+        Timer timer = timerRepository.saveAndFlush(
+            new Timer().duration(25).expirationTime(ZonedDateTime.now().minusMinutes(5)).status(TimerStatus.Running)
+        );
+        ZonedDateTime now = ZonedDateTime.now();
+        assertThat(timerRepository.findAllOverdueByStatus(TimerStatus.Running, now, PageRequest.of(0, 10)))
+            .extracting(TimerRepository.TimerExpiration::getId)
+            .contains(timer.getId());
+        timerRepository.saveAndFlush(timer.expirationTime(now.plusMinutes(25)));
+        em.clear();
+
+        assertThat(timerRepository.expireOverdueTimers(List.of(timer.getId()), now)).isZero();
+        em.clear();
+
+        assertThat(timerRepository.findById(timer.getId())).map(Timer::getStatus).contains(TimerStatus.Running);
+    }
+}
@@ -0,0 +1,88 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link TimingWheel} utility class.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private TimingWheel wheel;
+
+    private LongArrayList expired;
+
+    @BeforeEach
+    public void setup() {
+        wheel = new TimingWheel(100, 8, START);
+        expired = new LongArrayList();
+    }
+
+    @Test
+    void testEntryFiresOnceItsDeadlineHasPassed() {
+        wheel.schedule(1L, START + 250);
+
+        wheel.advance(START + 200, expired::add);
+        assertThat(expired.size()).isZero();
+
+        wheel.advance(START + 300, expired::add);
+        assertThat(expired.toArray()).containsExactly(1L);
+        assertThat(wheel.contains(1L)).isFalse();
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        wheel.schedule(1L, 0L);
+
+        wheel.advance(START + 100, expired::add);
+
+        assertThat(expired.toArray()).containsExactly(1L);
+    }
+
+    @Test
+    void testCancelledEntryNeverFires() {
+        wheel.schedule(1L, START + 100);
+        wheel.schedule(2L, START + 100);
+
+        assertThat(wheel.cancel(1L)).isTrue();
+        assertThat(wheel.cancel(1L)).isFalse();
+        wheel.advance(START + 1_000, expired::add);
+
+        assertThat(expired.toArray()).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void testRescheduleReplacesDeadline() {
+        wheel.schedule(1L, START + 100);
+        wheel.schedule(1L, START + 500);
+
+        wheel.advance(START + 400, expired::add);
+        assertThat(expired.size()).isZero();
+
+        wheel.advance(START + 500, expired::add);
+        assertThat(expired.toArray()).containsExactly(1L);
+    }
+
+    @Test
+    void testFarDeadlinesCascadeThroughLevels() {
+        // 8 slots of 100ms: level 0 spans 800ms, level 1 6.4s and level 2 51.2s
+        long[] deadlines = { START + 700, START + 799, START + 6_399, START + 6_500, START + 40_000, START + 3_600_000 };
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.advance(deadlines[i] - 1, expired::add);
+            assertThat(expired.size()).isEqualTo(i);
+            wheel.advance(deadlines[i] + 99, expired::add);
+            assertThat(expired.size()).isEqualTo(i + 1);
+            assertThat(expired.get(i)).isEqualTo(i);
+        }
+    }
+}
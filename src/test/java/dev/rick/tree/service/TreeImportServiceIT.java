@@ -0,0 +1,96 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.TreeImportRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.dto.TreeImportDTO;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TreeImportService}.
+ */
+@IntegrationTest
+@Transactional
+class TreeImportServiceIT {
+
+    private static final String NDJSON =
+        "{\"trees\":\"Willow\",\"assignedTo\":{\"login\":\"user\"}}\n" +
+        "{\"trees\":\"Palm\",\"assignedTo\":{\"login\":\"USER\"}}\n" +
+        "\n" +
+        "{\"trees\":\"Palm\"}\n" +
+        "{\"trees\":\"Oak tree\",\"assignedTo\":{\"login\":\"user\"}}\n" +
+        "{\"trees\":\"Willow\",\"assignedTo\":{\"login\":\"unknown-forester\"}}\n" +
+        "not json\n";
+
+    @Autowired
+    private TreeImportService treeImportService;
+
+    @Autowired
+    private TreeImportRepository treeImportRepository;
+
+    @Autowired
+    private TreeSummaryService treeSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void assertThatRowsAreImportedOnce() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+
+        TreeImportDTO result = treeImportService.importTrees("ndjson-import", DataFormat.NDJSON, rows(NDJSON));
+
+        assertThat(result.getRowsImported()).isEqualTo(3);
+        assertThat(result.getRowsRejected()).isEqualTo(3);
+        assertThat(result.getRowsCommitted()).isEqualTo(6);
+        assertThat(treeSummaryService.getSummary(user.getId()).getCounts())
+            .containsEntry(TreeType.Willow, 1L)
+            .containsEntry(TreeType.Palm, 1L);
+
+        TreeImportDTO resumed = treeImportService.importTrees("ndjson-import", DataFormat.NDJSON, rows(NDJSON));
+
+        assertThat(resumed.getRowsSkipped()).isEqualTo(6);
+        assertThat(resumed.getRowsImported()).isZero();
+        assertThat(treeImportRepository.findById("ndjson-import"))
+            .hasValueSatisfying(progress -> {
+                assertThat(progress.getRowsCommitted()).isEqualTo(6);
+                assertThat(progress.getRowsImported()).isEqualTo(3);
+                assertThat(progress.getRowsRejected()).isEqualTo(3);
+            });
+    }
+
+    @Test
+    void assertThatExportedCsvIsImported() throws Exception {
+        String csv = "id,trees,assigned_to_id,assigned_to_login\n" + "1,Willow,2,user\n" + "2,,,\n" + "3,\"Palm\",2,\"user\"\n";
+
+        TreeImportDTO result = treeImportService.importTrees("csv-import", DataFormat.CSV, rows(csv));
+
+        assertThat(result.getRowsImported()).isEqualTo(3);
+        assertThat(result.getRowsRejected()).isZero();
+    }
+
+    @Test
+    void assertThatCsvWithoutTreesColumnIsRefused() {
+        assertThatThrownBy(() -> treeImportService.importTrees("csv-invalid", DataFormat.CSV, rows("id,login\n1,user\n")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void assertThatQuotedCsvValuesAreSplit() {
+        assertThat(TreeImportService.splitCsv("1,\"a,\"\"b\"\"\",,c")).containsExactly("1", "a,\"b\"", "", "c");
+    }
+
+    private static InputStream rows(String rows) {
+        return new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package dev.rick.tree.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.domain.UserForestSummary;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserForestSummaryRepository;
+import dev.rick.tree.repository.UserRepository;
+import java.util.List;
+import java.util.Objects;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link TreeSummaryService}.
+ */
+@IntegrationTest
+@Transactional
+class TreeSummaryServiceIT {
+
+    @Autowired
+    private TreeRepository treeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserForestSummaryRepository userForestSummaryRepository;
+
+    @Autowired
+    private TreeSummaryService treeSummaryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void clearCache() {
+        // Summaries are evicted after commit, which test transactions never reach.
+        Objects.requireNonNull(cacheManager.getCache(TreeSummaryService.TREE_SUMMARY_BY_USER_CACHE)).clear();
+    }
+
+    @Test
+    void assertThatAddedAndRemovedTreesAreCounted() {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Tree willow = treeRepository.saveAndFlush(new Tree().trees(TreeType.Willow).assignedTo(user));
+        treeSummaryService.added(willow);
+        treeSummaryService.added(treeRepository.saveAndFlush(new Tree().trees(TreeType.Willow).assignedTo(user)));
+        treeSummaryService.added(treeRepository.saveAndFlush(new Tree().trees(TreeType.Dogwood).assignedTo(user)));
+        treeSummaryService.removed(willow);
+        em.flush();
+
+        assertThat(treeSummaryService.getSummary(user.getId()).getCounts())
+            .containsEntry(TreeType.Willow, 1L)
+            .containsEntry(TreeType.Dogwood, 1L);
+        assertThat(treeSummaryService.getSummary(user.getId()).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void assertThatRebuildRecomputesFromTrees() {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        treeRepository.saveAndFlush(new Tree().trees(TreeType.Willow).assignedTo(user));
+        treeRepository.saveAndFlush(new Tree().trees(TreeType.Willow).assignedTo(user));
+        userForestSummaryRepository.saveAndFlush(new UserForestSummary().userId(user.getId()).treeType(TreeType.Dogwood).total(5L));
+
+        assertThat(treeSummaryService.rebuild(List.of(user.getId()))).isEqualTo(1);
+        em.flush();
+
+        assertThat(userForestSummaryRepository.findTotalsByUserId(user.getId()))
+            .singleElement()
+            .satisfies(summary -> {
+                assertThat(summary.getTreeType()).isEqualTo(TreeType.Willow);
+                assertThat(summary.getTotal()).isEqualTo(2L);
+            });
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.security.RandomUtil;
 
@@ -182,4 +183,13 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    @WithMockUser(DEFAULT_LOGIN)
+    void assertThatCurrentUserIdFallsBackToTheLogin() {
+        User dbUser = userRepository.saveAndFlush(user);
+
+        assertThat(userService.getCurrentUserId()).contains(dbUser.getId());
+    }
 }
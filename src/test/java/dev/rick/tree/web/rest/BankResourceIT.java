@@ -9,6 +9,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import dev.rick.tree.IntegrationTest;
 import dev.rick.tree.domain.Bank;
 import dev.rick.tree.repository.BankRepository;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -128,9 +129,9 @@ class BankResourceIT {
         // Initialize the database
         bankRepository.saveAndFlush(bank);
 
-        // Get all the bankList
+        // Get the page of the bankList starting at the bank
         restBankMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(bank.getId() - 1)))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(bank.getId().intValue())))
@@ -205,6 +206,42 @@ class BankResourceIT {
         assertThat(testBank.getTreesowned()).isEqualTo(UPDATED_TREESOWNED);
     }
 
+    @Test
+    @Transactional
+    void putStaleBank() throws Exception {
+        // Initialize the database
+        bankRepository.saveAndFlush(bank);
+        bankRepository.incrementTreesownedByIdIn(List.of(bank.getId()), 1);
+        em.clear();
+
+        bank.treesowned(UPDATED_TREESOWNED);
+
+        restBankMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bank.getId()).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bank))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @Transactional
+    void incrementAndDecrementBank() throws Exception {
+        // Initialize the database
+        bankRepository.saveAndFlush(bank);
+
+        restBankMockMvc.perform(post(ENTITY_API_URL_ID + "/increment", bank.getId()).param("by", "3")).andExpect(status().isNoContent());
+        restBankMockMvc.perform(post(ENTITY_API_URL_ID + "/decrement", bank.getId()).param("by", "2")).andExpect(status().isNoContent());
+        restBankMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/decrement", bank.getId()).param("by", String.valueOf(DEFAULT_TREESOWNED + 2)))
+            .andExpect(status().isBadRequest());
+        restBankMockMvc.perform(post(ENTITY_API_URL_ID + "/increment", count.incrementAndGet())).andExpect(status().isNotFound());
+        em.clear();
+
+        Bank testBank = bankRepository.findById(bank.getId()).orElseThrow();
+        assertThat(testBank.getTreesowned()).isEqualTo(DEFAULT_TREESOWNED + 1);
+        assertThat(testBank.getVersion()).isEqualTo(bank.getVersion() + 2);
+    }
+
     @Test
     @Transactional
     void putNonExistingBank() throws Exception {
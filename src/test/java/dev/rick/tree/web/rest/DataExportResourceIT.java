@@ -0,0 +1,52 @@
+package dev.rick.tree.web.rest;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link DataExportResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class DataExportResourceIT {
+
+    @Autowired
+    private MockMvc restExportMockMvc;
+
+    @Test
+    void exportTreesAsCsv() throws Exception {
+        MvcResult result = restExportMockMvc
+            .perform(get("/api/admin/export/trees?format=csv"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restExportMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", startsWith("text/csv")))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"trees.csv\""))
+            .andExpect(content().string(startsWith("id,trees,assigned_to_id,assigned_to_login\n")));
+    }
+
+    @Test
+    void exportWithUnsupportedFormat() throws Exception {
+        restExportMockMvc.perform(get("/api/admin/export/timers?format=xml")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void exportIsForbiddenToUsers() throws Exception {
+        restExportMockMvc.perform(get("/api/admin/export/timers")).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,48 @@
+package dev.rick.tree.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link DataImportResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class DataImportResourceIT {
+
+    @Autowired
+    private MockMvc restImportMockMvc;
+
+    @Test
+    @Transactional
+    void importTreesAsCsv() throws Exception {
+        restImportMockMvc
+            .perform(
+                post("/api/admin/import/trees")
+                    .param("key", "csv-resource")
+                    .contentType("text/csv")
+                    .content("trees,assigned_to_login\nWillow,user\n")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.key").value("csv-resource"))
+            .andExpect(jsonPath("$.rowsImported").value(1))
+            .andExpect(jsonPath("$.rowsCommitted").value(1));
+    }
+
+    @Test
+    void importTreesWithInvalidKey() throws Exception {
+        restImportMockMvc
+            .perform(post("/api/admin/import/trees").param("key", "not a key").contentType("text/csv").content("trees\nWillow\n"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,93 @@
+package dev.rick.tree.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import dev.rick.tree.IntegrationTest;
+import dev.rick.tree.domain.Bank;
+import dev.rick.tree.domain.User;
+import dev.rick.tree.service.LeaderboardService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link LeaderboardResource} REST controller.
+ * <p>
+ * The leaderboard is updated outside of any transaction, so the changes apply immediately.
+ */
+@AutoConfigureMockMvc
+@WithMockUser("leaderboard-first")
+@IntegrationTest
+class LeaderboardResourceIT {
+
+    private static final long FIRST_BANK_ID = 1_000_001L;
+
+    private static final long SECOND_BANK_ID = 1_000_002L;
+
+    private static final int TREESOWNED = 1_000_000_000;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private MockMvc restLeaderboardMockMvc;
+
+    @AfterEach
+    public void cleanup() {
+        leaderboardService.removeBank(FIRST_BANK_ID);
+        leaderboardService.removeBank(SECOND_BANK_ID);
+    }
+
+    @Test
+    void getLeaderboard() throws Exception {
+        leaderboardService.set(bank(FIRST_BANK_ID, 1_000_001L, "leaderboard-first", TREESOWNED));
+        leaderboardService.set(bank(SECOND_BANK_ID, 1_000_002L, "leaderboard-second", TREESOWNED - 1));
+        leaderboardService.adjustBank(SECOND_BANK_ID, 2);
+
+        restLeaderboardMockMvc
+            .perform(get("/api/leaderboard?top=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].login").value("leaderboard-second"))
+            .andExpect(jsonPath("$.[0].rank").value(1))
+            .andExpect(jsonPath("$.[0].treesowned").value(TREESOWNED + 1))
+            .andExpect(jsonPath("$.[1].login").value("leaderboard-first"))
+            .andExpect(jsonPath("$.[1].rank").value(2));
+    }
+
+    @Test
+    void getLeaderboardWithInvalidTop() throws Exception {
+        restLeaderboardMockMvc.perform(get("/api/leaderboard?top=0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCurrentUserLeaderboardEntry() throws Exception {
+        leaderboardService.set(bank(FIRST_BANK_ID, 1_000_001L, "leaderboard-first", TREESOWNED));
+
+        restLeaderboardMockMvc
+            .perform(get("/api/leaderboard/me"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userId").value(1_000_001L))
+            .andExpect(jsonPath("$.rank").value(1))
+            .andExpect(jsonPath("$.percentile").value(100.0));
+    }
+
+    @Test
+    void getCurrentUserLeaderboardEntryOnceBankRemoved() throws Exception {
+        leaderboardService.set(bank(FIRST_BANK_ID, 1_000_001L, "leaderboard-first", TREESOWNED));
+        leaderboardService.removeBank(FIRST_BANK_ID);
+
+        restLeaderboardMockMvc.perform(get("/api/leaderboard/me")).andExpect(status().isNotFound());
+    }
+
+    private static Bank bank(long bankId, long userId, String login, int treesowned) {
+        User user = new User();
+        user.setId(userId);
+        user.setLogin(login);
+        return new Bank().id(bankId).treesowned(treesowned).assignedTo(user);
+    }
+}
@@ -7,10 +7,21 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.rick.tree.IntegrationTest;
 import dev.rick.tree.domain.Timer;
+import dev.rick.tree.domain.User;
 import dev.rick.tree.domain.enumeration.TimerStatus;
+import dev.rick.tree.domain.enumeration.TreeType;
+import dev.rick.tree.repository.BankRepository;
 import dev.rick.tree.repository.TimerRepository;
+import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.ActiveTimerRegistry;
+import dev.rick.tree.service.TimerEventService;
+import dev.rick.tree.service.dto.BulkTimerDTO;
+import dev.rick.tree.service.dto.TimerEventDTO;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -33,6 +44,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -65,6 +77,24 @@ class TimerResourceIT {
     @Mock
     private TimerRepository timerRepositoryMock;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TimerEventService timerEventService;
+
+    @Autowired
+    private ActiveTimerRegistry activeTimerRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TreeRepository treeRepository;
+
+    @Autowired
+    private BankRepository bankRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -118,6 +148,39 @@ class TimerResourceIT {
         assertThat(testTimer.getStatus()).isEqualTo(DEFAULT_STATUS);
     }
 
+    @Test
+    @Transactional
+    void createTimersInBulk() throws Exception {
+        User admin = userRepository.findOneByLogin("admin").orElseThrow();
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        timer.status(TimerStatus.Expired).setAssignedTo(admin);
+        timerRepository.saveAndFlush(timer);
+        int databaseSizeBeforeCreate = timerRepository.findAll().size();
+
+        BulkTimerDTO bulkTimer = new BulkTimerDTO();
+        bulkTimer.setUserIds(List.of(admin.getId(), user.getId()));
+        bulkTimer.setDuration(UPDATED_DURATION);
+        restTimerMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkTimer))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0]").value(timer.getId().intValue()));
+
+        // The finished timer of the admin is restarted
+        List<Timer> timerList = timerRepository.findAllByAssignedToIdIn(List.of(admin.getId(), user.getId()));
+        assertThat(timerList).hasSize(2).allMatch(t -> t.getStatus() == TimerStatus.Running && UPDATED_DURATION.equals(t.getDuration()));
+        assertThat(timerRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+
+        // Both users now have a running timer
+        restTimerMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(bulkTimer))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void createTimerWithExistingId() throws Exception {
@@ -142,9 +205,9 @@ class TimerResourceIT {
         // Initialize the database
         timerRepository.saveAndFlush(timer);
 
-        // Get all the timerList
+        // Get the page of the timerList starting at the timer
         restTimerMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(timer.getId() - 1)))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(timer.getId().intValue())))
@@ -187,6 +250,93 @@ class TimerResourceIT {
             .andExpect(jsonPath("$.status").value(DEFAULT_STATUS.toString()));
     }
 
+    @Test
+    @Transactional
+    void getRunningTimerServesTheSameFieldsFromTheRegistryAsFromTheDatabase() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        timerRepository.saveAndFlush(timer.expirationTime(ZonedDateTime.now().plusMinutes(25)).assignedTo(user));
+        em.clear();
+        Timer running = timerRepository.findOneWithEagerRelationships(timer.getId()).orElseThrow();
+
+        String fromDatabase = restTimerMockMvc
+            .perform(get(ENTITY_API_URL_ID, timer.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        activeTimerRegistry.put(running);
+        try {
+            assertThat(activeTimerRegistry.get(timer.getId())).isPresent();
+            String fromRegistry = restTimerMockMvc
+                .perform(get(ENTITY_API_URL_ID, timer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignedTo.id").value(user.getId().intValue()))
+                .andExpect(jsonPath("$.assignedTo.login").value("user"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+            assertThat(objectMapper.readTree(fromRegistry)).isEqualTo(objectMapper.readTree(fromDatabase));
+        } finally {
+            activeTimerRegistry.remove(timer.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void streamTimerEvents() throws Exception {
+        Long userId = userRepository.findOneByLogin("user").orElseThrow().getId();
+
+        MvcResult result = restTimerMockMvc.perform(get(ENTITY_API_URL + "/stream")).andExpect(request().asyncStarted()).andReturn();
+        timerEventService.publish(userId, new TimerEventDTO(TimerEventDTO.Type.STARTED, 42L, UPDATED_EXPIRATION_TIME, 1000L));
+        // Events are sent by the timer events executor.
+        for (int i = 0; i < 100 && !result.getResponse().getContentAsString().contains("event:started"); i++) {
+            Thread.sleep(50);
+        }
+
+        assertThat(result.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(result.getResponse().getContentAsString()).contains("event:started").contains("\"timerId\":42");
+    }
+
+    @Test
+    @Transactional
+    void completeTimerAwardsTreeOnce() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        timer.setAssignedTo(user);
+        timerRepository.saveAndFlush(timer);
+        int treesBefore = treeRepository.findAll().size();
+        int treesownedBefore = bankRepository.findTreesownedByAssignedToId(user.getId()).orElse(0);
+
+        restTimerMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/complete", timer.getId()).param("treeType", TreeType.Willow.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.awarded").value(true))
+            .andExpect(jsonPath("$.treeType").value(TreeType.Willow.toString()))
+            .andExpect(jsonPath("$.treesowned").value(treesownedBefore + 1));
+
+        // A retried completion does not award again
+        restTimerMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/complete", timer.getId()).param("treeType", TreeType.Willow.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.awarded").value(false))
+            .andExpect(jsonPath("$.treesowned").value(treesownedBefore + 1));
+
+        assertThat(treeRepository.findAll()).hasSize(treesBefore + 1);
+        assertThat(timerRepository.findAllExpirationsByStatus(TimerStatus.Completed)).extracting("id").contains(timer.getId());
+    }
+
+    @Test
+    @Transactional
+    void completeUnfinishedTimer() throws Exception {
+        timer.setExpirationTime(ZonedDateTime.now().plusMinutes(25));
+        timer.setAssignedTo(userRepository.findOneByLogin("user").orElseThrow());
+        timerRepository.saveAndFlush(timer);
+
+        restTimerMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/complete", timer.getId()).param("treeType", TreeType.Willow.toString()))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getNonExistingTimer() throws Exception {
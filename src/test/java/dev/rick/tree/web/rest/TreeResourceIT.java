@@ -1,17 +1,27 @@
 package dev.rick.tree.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import dev.rick.tree.IntegrationTest;
 import dev.rick.tree.domain.Tree;
+import dev.rick.tree.domain.User;
 import dev.rick.tree.domain.enumeration.TreeType;
 import dev.rick.tree.repository.TreeRepository;
+import dev.rick.tree.repository.UserRepository;
+import dev.rick.tree.service.EntityVersionService;
+import dev.rick.tree.service.ForestCodec;
+import dev.rick.tree.service.TreeSummaryService;
+import dev.rick.tree.web.rest.util.KeysetPaginationUtil;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
@@ -22,9 +32,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -54,6 +66,18 @@ class TreeResourceIT {
     @Mock
     private TreeRepository treeRepositoryMock;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TreeSummaryService treeSummaryService;
+
+    @Autowired
+    private EntityVersionService entityVersionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private EntityManager em;
 
@@ -129,15 +153,79 @@ class TreeResourceIT {
         // Initialize the database
         treeRepository.saveAndFlush(tree);
 
-        // Get all the treeList
+        // Get the page of the treeList starting at the tree
         restTreeMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(tree.getId() - 1)))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(tree.getId().intValue())))
             .andExpect(jsonPath("$.[*].trees").value(hasItem(DEFAULT_TREES.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllTreesByCursor() throws Exception {
+        // Initialize the database
+        Tree first = treeRepository.saveAndFlush(createEntity(em));
+        Tree second = treeRepository.saveAndFlush(createEntity(em));
+        String after = KeysetPaginationUtil.encodeCursor(first.getId() - 1);
+
+        // Get the first page, linking to the second
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after=" + after))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].id").value(first.getId().intValue()))
+            .andExpect(header().string("Link", containsString("after=" + KeysetPaginationUtil.encodeCursor(first.getId()))))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")));
+
+        // Get the second page
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&after=" + KeysetPaginationUtil.encodeCursor(first.getId())))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()));
+
+        // An invalid cursor is rejected
+        restTreeMockMvc.perform(get(ENTITY_API_URL + "?after=not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllTreesWithOwnerLoginOnly() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Tree owned = treeRepository.saveAndFlush(createEntity(em).assignedTo(user));
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(owned.getId() - 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(owned.getId().intValue()))
+            .andExpect(jsonPath("$.[0].trees").value(DEFAULT_TREES.toString()))
+            .andExpect(jsonPath("$.[0].assignedTo.id").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.[0].assignedTo.login").value("user"))
+            .andExpect(jsonPath("$.[0].assignedTo.email").doesNotExist());
+    }
+
+    @Test
+    void getAllTreesNotModifiedUntilTreesChange() throws Exception {
+        String etag = restTreeMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restTreeMockMvc.perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        // Outside of a transaction the version is bumped right away.
+        entityVersionService.changed(Tree.class);
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllTreesWithEagerRelationshipsIsEnabled() throws Exception {
         when(treeRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -155,6 +243,86 @@ class TreeResourceIT {
         verify(treeRepositoryMock, times(1)).findAll(any(Pageable.class));
     }
 
+    @Test
+    @Transactional
+    void getCurrentUserTreesCompact() throws Exception {
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        Tree first = treeRepository.saveAndFlush(createEntity(em).assignedTo(user));
+        Tree second = treeRepository.saveAndFlush(createUpdatedEntity(em).assignedTo(user));
+
+        byte[] compact = restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me").param("format", "compact"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(ForestCodec.MEDIA_TYPE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        assertThat(ForestCodec.decode(compact))
+            .extracting(Tree::getId, Tree::getTrees)
+            .contains(tuple(first.getId(), DEFAULT_TREES), tuple(second.getId(), UPDATED_TREES));
+
+        // The encoding can also be negotiated
+        byte[] accepted = restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me").accept(ForestCodec.MEDIA_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+        assertThat(accepted).isEqualTo(compact);
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(first.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getCurrentUserTreeSummary() throws Exception {
+        Objects.requireNonNull(cacheManager.getCache(TreeSummaryService.TREE_SUMMARY_BY_USER_CACHE)).clear();
+        User user = userRepository.findOneByLogin("user").orElseThrow();
+        treeSummaryService.added(treeRepository.saveAndFlush(createEntity(em).assignedTo(user)));
+        Tree tree = treeRepository.saveAndFlush(createEntity(em).assignedTo(user));
+        treeSummaryService.added(tree);
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.counts." + DEFAULT_TREES).value(2))
+            .andExpect(jsonPath("$.counts." + UPDATED_TREES).value(0))
+            .andExpect(jsonPath("$.total").value(2));
+
+        // Creating a tree through the API counts it, the cached summary is evicted after commit, which the test
+        // transaction never reaches
+        restTreeMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(createUpdatedEntity(em).assignedTo(user)))
+            )
+            .andExpect(status().isCreated());
+        Objects.requireNonNull(cacheManager.getCache(TreeSummaryService.TREE_SUMMARY_BY_USER_CACHE)).clear();
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.counts." + UPDATED_TREES).value(1))
+            .andExpect(jsonPath("$.total").value(3));
+
+        // Deleting a tree through the API uncounts it
+        restTreeMockMvc.perform(delete(ENTITY_API_URL_ID, tree.getId())).andExpect(status().isNoContent());
+        Objects.requireNonNull(cacheManager.getCache(TreeSummaryService.TREE_SUMMARY_BY_USER_CACHE)).clear();
+
+        restTreeMockMvc
+            .perform(get(ENTITY_API_URL + "/me/summary"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.counts." + DEFAULT_TREES).value(1))
+            .andExpect(jsonPath("$.total").value(2));
+    }
+
     @Test
     @Transactional
     void getTree() throws Exception {